@@ -0,0 +1,266 @@
+package pl.regonos.exception.wrapper.flow;
+
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.ThrowingFunction;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * {@link Flow.Processor} which maps every element with given function and handles its exceptions with {@link ExceptionPolicy}.
+ * Mapped and recovered elements are passed downstream, elements rethrown by the policy are passed with their exception to
+ * the failure consumer. Elements which did not reach downstream are requested again from upstream, so demand of the
+ * downstream subscriber is respected end to end. Processor accepts a single downstream subscriber.
+ * <p>
+ * Every element is executed with {@link ExceptionPolicy#execute(pl.regonos.exception.wrapper.ThrowingSupplier)}, so
+ * retry configured on the policy is applied before the element is handled.
+ * <pre>{@code
+ * ExceptionHandlingProcessor<String, Integer> processor =
+ *         new ExceptionHandlingProcessor<>(Integer::parseInt, policy, (item, ex) -> deadLetters.add(item));
+ * publisher.subscribe(processor);
+ * processor.subscribe(subscriber);
+ * }</pre>
+ *
+ * @param <T> type of elements received from upstream.
+ * @param <R> type of elements passed downstream.
+ * @author Igor Maculewicz
+ */
+public class ExceptionHandlingProcessor<T, R> implements Flow.Processor<T, R> {
+
+    private static final Object COMPLETE = new Object();
+
+    private final ThrowingFunction<? super T, ? extends R> function;
+    private final ExceptionPolicy<?> policy;
+    private final BiConsumer<? super T, ? super Throwable> failureConsumer;
+
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super R> downstream;
+    private volatile boolean cancelled;
+
+    /**
+     * Terminal signal, {@link #COMPLETE} or an error. Set once, delivered once by {@link #emitTerminal()}.
+     */
+    private final AtomicReference<Object> terminal = new AtomicReference<>();
+    private final AtomicBoolean terminalDelivered = new AtomicBoolean();
+
+    /**
+     * Serializes signals of the downstream subscriber. Terminal signal raised while an element is emitted is delivered by
+     * the emitting thread, after downstream returns from onNext.
+     */
+    private final AtomicInteger emitting = new AtomicInteger();
+
+    /**
+     * Demand not yet passed to upstream, calls of upstream subscription are serialized by {@link #missed}.
+     */
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger missed = new AtomicInteger();
+
+    /**
+     * @param function        function applied to every element.
+     * @param policy          policy which handles exceptions thrown by function.
+     * @param failureConsumer consumer of elements, for which policy rethrown an exception.
+     */
+    public ExceptionHandlingProcessor(ThrowingFunction<? super T, ? extends R> function, ExceptionPolicy<?> policy,
+                                      BiConsumer<? super T, ? super Throwable> failureConsumer) {
+        this.function = Objects.requireNonNull(function, "function");
+        this.policy = Objects.requireNonNull(policy, "policy");
+        this.failureConsumer = Objects.requireNonNull(failureConsumer, "failureConsumer");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+
+        synchronized (this) {
+            if (downstream != null) {
+                subscriber.onSubscribe(new EmptySubscription());
+                subscriber.onError(new IllegalStateException("Processor accepts only one subscriber"));
+                return;
+            }
+            downstream = subscriber;
+        }
+
+        subscriber.onSubscribe(new DownstreamSubscription());
+        if (terminal.get() != null) {
+            //Terminated before subscription, no element could be emitted yet
+            emitTerminal();
+        }
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription");
+
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        drainRequests();
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (terminal.get() != null || cancelled) {
+            return;
+        }
+
+        R value;
+        try {
+            value = policy.execute(() -> function.apply(item));
+        } catch (Throwable failure) {
+            if (reportFailure(item, failure)) {
+                request(1);
+            }
+            return;
+        }
+
+        if (value == null) {
+            //Handled without a value, element is dropped and replaced by a new one
+            request(1);
+            return;
+        }
+
+        emitNext(value);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        terminate(Objects.requireNonNull(throwable, "throwable"));
+    }
+
+    @Override
+    public void onComplete() {
+        terminate(null);
+    }
+
+    /**
+     * Pass failed element to failure consumer. If consumer fails, the whole stream is failed.
+     *
+     * @return flag that processing can be continued.
+     */
+    private boolean reportFailure(T item, Throwable failure) {
+        try {
+            failureConsumer.accept(item, failure);
+            return true;
+        } catch (Throwable ex) {
+            cancel();
+            terminate(ex);
+            return false;
+        }
+    }
+
+    private void emitNext(R value) {
+        if (emitting.get() != 0 || !emitting.compareAndSet(0, 1)) {
+            //Terminal signal is already being delivered
+            return;
+        }
+
+        downstream.onNext(value);
+        if (emitting.decrementAndGet() != 0) {
+            emitTerminal();
+        }
+    }
+
+    /**
+     * Records terminal signal and delivers it, unless an element is being emitted. In that case the emitting thread
+     * delivers it, so downstream never receives concurrent signals, whichever thread terminates the stream.
+     */
+    private void terminate(Throwable error) {
+        if (!terminal.compareAndSet(null, error != null ? error : COMPLETE)) {
+            return;
+        }
+
+        if (emitting.getAndIncrement() == 0) {
+            emitTerminal();
+        }
+    }
+
+    private void emitTerminal() {
+        Flow.Subscriber<? super R> subscriber = downstream;
+        if (subscriber == null || !terminalDelivered.compareAndSet(false, true)) {
+            return;
+        }
+
+        Object signal = terminal.get();
+        if (signal == COMPLETE) {
+            subscriber.onComplete();
+        } else {
+            subscriber.onError((Throwable) signal);
+        }
+    }
+
+    private void request(long n) {
+        long current;
+        long next;
+        do {
+            current = requested.get();
+            next = current + n < 0 ? Long.MAX_VALUE : current + n;
+        } while (!requested.compareAndSet(current, next));
+
+        drainRequests();
+    }
+
+    private void cancel() {
+        cancelled = true;
+        drainRequests();
+    }
+
+    /**
+     * Passes collected demand and cancellation to upstream. Only one thread at a time calls upstream subscription.
+     */
+    private void drainRequests() {
+        if (missed.getAndIncrement() != 0) {
+            return;
+        }
+
+        do {
+            Flow.Subscription subscription = upstream;
+            if (subscription != null) {
+                if (cancelled) {
+                    subscription.cancel();
+                    requested.set(0);
+                } else {
+                    long n = requested.getAndSet(0);
+                    if (n > 0) {
+                        subscription.request(n);
+                    }
+                }
+            }
+        } while (missed.decrementAndGet() != 0);
+    }
+
+    private class DownstreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                ExceptionHandlingProcessor.this.cancel();
+                terminate(new IllegalArgumentException("Requested " + n + " elements, demand have to be positive"));
+                return;
+            }
+            ExceptionHandlingProcessor.this.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            ExceptionHandlingProcessor.this.cancel();
+        }
+    }
+
+    private static class EmptySubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+}
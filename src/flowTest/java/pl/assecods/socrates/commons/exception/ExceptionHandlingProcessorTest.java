@@ -0,0 +1,193 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.flow.ExceptionHandlingProcessor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExceptionHandlingProcessorTest {
+
+    private List<Throwable> handled;
+    private List<String> failed;
+    private TestPublisher publisher;
+    private TestSubscriber subscriber;
+    private ExceptionHandlingProcessor<String, Integer> processor;
+
+    @Before
+    public void setup() {
+        handled = new ArrayList<>();
+        failed = new ArrayList<>();
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeFor(handled::add, NumberFormatException.class);
+
+        processor = new ExceptionHandlingProcessor<>(this::parse, policy, (item, ex) -> failed.add(item));
+        publisher = new TestPublisher();
+        subscriber = new TestSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+    }
+
+    @Test
+    public void request_givenDownstreamDemand_shouldPassOnlyThisDemandToUpstream() {
+        subscriber.subscription.request(2);
+        publisher.emit("1");
+        publisher.emit("2");
+
+        assertThat(publisher.requested).isEqualTo(2L);
+        assertThat(subscriber.events).containsExactly("onNext 1", "onNext 2");
+    }
+
+    @Test
+    public void onNext_givenHandledException_shouldDropElementAndRequestNextOne() {
+        subscriber.subscription.request(1);
+        publisher.emit("two");
+        publisher.emit("3");
+
+        assertThat(publisher.requested).isEqualTo(2L);
+        assertThat(handled).hasSize(1);
+        assertThat(subscriber.events).containsExactly("onNext 3");
+    }
+
+    @Test
+    public void onNext_givenRethrownException_shouldPassElementToFailureConsumerAndRequestNextOne() {
+        subscriber.subscription.request(1);
+        publisher.emit("file");
+        publisher.emit("3");
+
+        assertThat(publisher.requested).isEqualTo(2L);
+        assertThat(failed).containsExactly("file");
+        assertThat(subscriber.events).containsExactly("onNext 3");
+    }
+
+    @Test
+    public void onNext_givenFailingFailureConsumer_shouldCancelUpstreamAndFailDownstream() {
+        processor = new ExceptionHandlingProcessor<>(this::parse, ExceptionPolicy.builder()
+                .thenRethrowForUnhandled(IllegalStateException::new), (item, ex) -> {
+            throw new IllegalArgumentException(item);
+        });
+        publisher = new TestPublisher();
+        subscriber = new TestSubscriber();
+        publisher.subscribe(processor);
+        processor.subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        publisher.emit("two");
+
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.events).containsExactly("onError IllegalArgumentException");
+    }
+
+    @Test
+    public void request_givenNotPositiveDemandDuringOnNext_shouldSignalErrorAfterOnNextReturns() {
+        subscriber.requestOnNext = 0L;
+        subscriber.subscription.request(1);
+        publisher.emit("1");
+
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.events).containsExactly("onNext 1", "onNext 1 returned", "onError IllegalArgumentException");
+    }
+
+    @Test
+    public void request_givenNotPositiveDemand_shouldCancelUpstreamAndFailDownstream() {
+        subscriber.subscription.request(-1);
+
+        assertThat(publisher.cancelled).isTrue();
+        assertThat(subscriber.events).containsExactly("onError IllegalArgumentException");
+    }
+
+    @Test
+    public void onComplete_givenCompletedUpstream_shouldCompleteDownstreamOnce() {
+        processor.onComplete();
+        processor.onError(new IllegalStateException());
+
+        assertThat(subscriber.events).containsExactly("onComplete");
+    }
+
+    @Test
+    public void subscribe_givenTerminatedProcessor_shouldSignalTerminalAfterSubscription() {
+        processor = new ExceptionHandlingProcessor<>(this::parse, ExceptionPolicy.builder()
+                .thenRethrowForUnhandled(IllegalStateException::new), (item, ex) -> failed.add(item));
+        processor.onError(new IllegalStateException());
+        subscriber = new TestSubscriber();
+        processor.subscribe(subscriber);
+
+        assertThat(subscriber.subscription).isNotNull();
+        assertThat(subscriber.events).containsExactly("onError IllegalStateException");
+    }
+
+    private Integer parse(String value) throws IOException {
+        if ("file".equals(value)) {
+            throw new IOException(value);
+        }
+        return Integer.parseInt(value);
+    }
+
+    private static class TestPublisher implements Flow.Publisher<String> {
+
+        private Flow.Subscriber<? super String> subscriber;
+        private long requested;
+        private long emitted;
+        private boolean cancelled;
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super String> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested += n;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+        private void emit(String item) {
+            assertThat(emitted).isLessThan(requested);
+            emitted++;
+            subscriber.onNext(item);
+        }
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Integer> {
+
+        private final List<String> events = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Long requestOnNext;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            events.add("onNext " + item);
+            if (requestOnNext != null) {
+                subscription.request(requestOnNext);
+                events.add("onNext " + item + " returned");
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            events.add("onError " + throwable.getClass().getSimpleName());
+        }
+
+        @Override
+        public void onComplete() {
+            events.add("onComplete");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package pl.assecods.socrates.commons.exception;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlightEventsTest {
+
+    private static final String CAPTURED = "pl.regonos.exception.wrapper.ExceptionCaptured";
+    private static final String MATCHED = "pl.regonos.exception.wrapper.HandlerMatched";
+    private static final String RETHROWN = "pl.regonos.exception.wrapper.ExceptionRethrown";
+
+    private Path file;
+
+    @Before
+    public void setup() throws IOException {
+        file = Files.createTempFile("exception-wrapper", ".jfr");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void execute_givenEnabledRecording_shouldRecordCapturedAndMatchedException() throws IOException {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .thenInvokeFor(ex -> {
+                }, IOException.class);
+
+        List<RecordedEvent> events = record(() -> policy.execute(() -> {
+            throw new IOException("file");
+        }));
+
+        assertThat(eventsOf(events, CAPTURED)).hasSize(1);
+        assertThat(eventsOf(events, CAPTURED).get(0).getClass("exceptionClass").getName()).isEqualTo("java.io.IOException");
+        assertThat(eventsOf(events, CAPTURED).get(0).getString("message")).isEqualTo("file");
+        assertThat(eventsOf(events, MATCHED)).hasSize(1);
+        assertThat(eventsOf(events, MATCHED).get(0).getString("handler")).isEqualTo("THEN_INVOKE_FOR");
+    }
+
+    @Test
+    public void handle_givenEnabledRecording_shouldRecordRethrownException() throws IOException {
+        List<RecordedEvent> events = record(() -> {
+            try {
+                ExceptionWrapper.handle(() -> {
+                    throw new IOException();
+                }).thenRethrowFor(IllegalStateException::new, IOException.class);
+            } catch (IllegalStateException ex) {
+                //expected
+            }
+        });
+
+        assertThat(eventsOf(events, RETHROWN)).hasSize(1);
+        assertThat(eventsOf(events, RETHROWN).get(0).getClass("rethrownClass").getName())
+                .isEqualTo("java.lang.IllegalStateException");
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        try (Recording recording = new Recording()) {
+            recording.enable(CAPTURED);
+            recording.enable(MATCHED);
+            recording.enable(RETHROWN);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.ThrowingSupplier;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadsTest {
+
+    private static final String GIVEN_STRING = "string";
+
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        dummyList = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test
+    public void handleOnVirtualThread_givenCorrectValue_shouldReturnValueComputedOnVirtualThread() {
+        AtomicBoolean virtual = new AtomicBoolean();
+
+        String result = ExceptionWrapper.handleOnVirtualThread(() -> {
+            virtual.set(Thread.currentThread().isVirtual());
+            return GIVEN_STRING;
+        }).thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(virtual.get()).isTrue();
+    }
+
+    @Test
+    public void handleOnVirtualThread_givenException_shouldHandleItInCallingThread() {
+        String result = ExceptionWrapper.<String>handleOnVirtualThread(() -> {
+            throw new IOException();
+        }).thenInvokeFor(dummyList::add, IOException.class);
+
+        assertThat(result).isNull();
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void handleAllOnVirtualThreads_givenSuppliers_shouldRunThemConcurrentlyAndKeepOrder() {
+        CountDownLatch allStarted = new CountDownLatch(3);
+        List<ThrowingSupplier<String>> suppliers = Arrays.asList(
+                awaitingAll(allStarted, "1"), awaitingAll(allStarted, "2"), awaitingAll(allStarted, "3"));
+
+        List<String> result = ExceptionWrapper.handleAllOnVirtualThreads(suppliers).stream()
+                .map(wrapper -> wrapper.thenInvokeFor(dummyList::add, InterruptedException.class))
+                .collect(Collectors.toList());
+
+        assertThat(result).containsExactly("1", "2", "3");
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void handleAllOnVirtualThreads_givenInterruptedCaller_shouldInterruptSuppliersAndRestoreInterrupt() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(2);
+        List<ThrowingSupplier<String>> suppliers = Arrays.asList(sleeping(started), sleeping(started));
+        AtomicReference<List<ExceptionWrapper<String>>> wrappers = new AtomicReference<>();
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        Thread caller = new Thread(() -> {
+            wrappers.set(ExceptionWrapper.handleAllOnVirtualThreads(suppliers));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.interrupt();
+        caller.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(caller.isAlive()).isFalse();
+        assertThat(interrupted.get()).isTrue();
+        for (ExceptionWrapper<String> wrapper : wrappers.get()) {
+            wrapper.thenInvokeFor(dummyList::add, InterruptedException.class);
+        }
+        assertThat(dummyList).hasSize(2);
+    }
+
+    private ThrowingSupplier<String> awaitingAll(CountDownLatch allStarted, String value) {
+        return () -> {
+            allStarted.countDown();
+            if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Suppliers were not run concurrently");
+            }
+            return value;
+        };
+    }
+
+    private ThrowingSupplier<String> sleeping(CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            Thread.sleep(10_000);
+            return GIVEN_STRING;
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package pl.regonos.exception.wrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Compares handler chains of 1, 3 and 8 handlers against a plain try-catch baseline.
+ * On the failure path the thrown exception is matched by the last handler, so the whole chain is evaluated.
+ *
+ * @author Igor Maculewicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ChainBenchmark {
+
+    private static final IOException FAILURE = new IOException("benchmark");
+
+    @Param({"SUCCESS", "FAILURE"})
+    private HandlerBenchmark.Path path;
+
+    private ThrowingSupplier<String> supplier;
+
+    @Setup
+    public void setup() {
+        String value = "value";
+        supplier = path == HandlerBenchmark.Path.SUCCESS ? () -> value : () -> {
+            throw FAILURE;
+        };
+    }
+
+    @Benchmark
+    public Object baselineTryCatch(Blackhole blackhole) {
+        try {
+            return supplier.get();
+        } catch (Throwable ex) {
+            if (ex instanceof IOException) {
+                blackhole.consume(ex);
+            }
+            return null;
+        }
+    }
+
+    @Benchmark
+    public Object chainOf1(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier)
+                .thenInvokeFor(blackhole::consume, IOException.class);
+    }
+
+    @Benchmark
+    public Object chainOf3(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier)
+                .andInvokeFor(blackhole::consume, IllegalStateException.class)
+                .andInvokeFor(blackhole::consume, IllegalArgumentException.class)
+                .thenInvokeFor(blackhole::consume, IOException.class);
+    }
+
+    @Benchmark
+    public Object chainOf8(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier)
+                .andInvokeFor(blackhole::consume, IllegalStateException.class)
+                .andInvokeFor(blackhole::consume, IllegalArgumentException.class)
+                .andInvokeFor(blackhole::consume, UnsupportedOperationException.class)
+                .andInvokeFor(blackhole::consume, ArithmeticException.class)
+                .andInvokeFor(blackhole::consume, SQLException.class)
+                .andInvokeFor(blackhole::consume, TimeoutException.class)
+                .andInvokeFor(blackhole::consume, InterruptedException.class)
+                .thenInvokeFor(blackhole::consume, IOException.class);
+    }
+}
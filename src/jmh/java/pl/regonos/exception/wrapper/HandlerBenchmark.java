@@ -0,0 +1,132 @@
+package pl.regonos.exception.wrapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single {@link ExceptionWrapper} handler per benchmark, on both the success and failure path.
+ * Run with {@code ./gradlew jmh}, allocation rates are reported by the {@code gc} profiler.
+ *
+ * @author Igor Maculewicz
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HandlerBenchmark {
+
+    /**
+     * Pre-allocated failure, so the numbers show the cost of the wrapper and not of filling in a stack trace.
+     */
+    private static final IOException FAILURE = new IOException("benchmark");
+
+    @Param({"SUCCESS", "FAILURE"})
+    private Path path;
+
+    private ThrowingSupplier<String> supplier;
+
+    @Setup
+    public void setup() {
+        String value = "value";
+        supplier = path == Path.SUCCESS ? () -> value : () -> {
+            throw FAILURE;
+        };
+    }
+
+    @Benchmark
+    public Object handle() {
+        return ExceptionWrapper.handle(supplier);
+    }
+
+    @Benchmark
+    public Object andThrowFor() {
+        try {
+            return ExceptionWrapper.handle(supplier).andThrowFor(IOException.class);
+        } catch (IOException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object andRethrowFor() {
+        try {
+            return ExceptionWrapper.handle(supplier).andRethrowFor(ex -> FAILURE, IOException.class);
+        } catch (IOException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object andRethrowForParent() {
+        try {
+            return ExceptionWrapper.handle(supplier).andRethrowForParent(ex -> FAILURE, Exception.class);
+        } catch (IOException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object andInvokeFor(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier).andInvokeFor(blackhole::consume, IOException.class);
+    }
+
+    @Benchmark
+    public Object andInvokeForParent(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier).andInvokeForParent(blackhole::consume, Exception.class);
+    }
+
+    @Benchmark
+    public Object thenRethrowFor() {
+        try {
+            return ExceptionWrapper.handle(supplier).thenRethrowFor(ex -> FAILURE, IOException.class);
+        } catch (IOException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object thenRethrowForParent() {
+        try {
+            return ExceptionWrapper.handle(supplier).thenRethrowForParent(ex -> FAILURE, Exception.class);
+        } catch (IOException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object thenRethrowForUnhandled() {
+        try {
+            return ExceptionWrapper.handle(supplier).thenRethrowForUnhandled(ex -> FAILURE);
+        } catch (IOException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object thenInvokeFor(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier).thenInvokeFor(blackhole::consume, IOException.class);
+    }
+
+    @Benchmark
+    public Object thenInvokeForParent(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier).thenInvokeForParent(blackhole::consume, Exception.class);
+    }
+
+    @Benchmark
+    public Object thenInvokeForUnhandled(Blackhole blackhole) {
+        return ExceptionWrapper.handle(supplier).thenInvokeForUnhandled(blackhole::consume);
+    }
+
+    public enum Path {
+        SUCCESS, FAILURE
+    }
+}
@@ -0,0 +1,685 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Base of exception wrappers, which contains exception matching and all chaining methods.
+ * Finalizer methods are declared by implementations, because only they know the type of returned value.
+ *
+ * @param <W> type of wrapper returned from chaining methods.
+ * @author Igor Maculewicz
+ */
+public abstract class AbstractExceptionWrapper<W extends AbstractExceptionWrapper<W>> {
+
+    /**
+     * Maximal number of causes checked by *ForCause methods, which also protects them against cyclic cause chains.
+     */
+    static final int MAX_CAUSE_DEPTH = 32;
+
+    Throwable error;
+    /**
+     * Created lazily on the first failure, so the success path does not allocate it at all.
+     */
+    private Set<Class> usedExceptions;
+    private boolean rethrowUnsafe;
+
+    /**
+     * Package private constructor, wrappers can be created only by their static methods.
+     *
+     * @param rethrowUnsafe allow throwing unchecked exceptions as checked in finalizer methods.
+     */
+    AbstractExceptionWrapper(boolean rethrowUnsafe) {
+        this.rethrowUnsafe = rethrowUnsafe;
+    }
+
+    /**
+     * If expected exception is thrown, propagate it higher.
+     *
+     * @param expectingException exception which will be propagated
+     * @param <X>                Generic exception type which will be thrown.
+     * @return instance of created wrapper.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    @SuppressWarnings("unchecked")
+    public <X extends Throwable> W andThrowFor(@NonNull Class<X> expectingException) throws X {
+
+        if (checkAnyClassIsAllowed(true, expectingException)) {
+            recordMatch(HandlerType.AND_THROW_FOR, error);
+            FlightEvents.exceptionRethrown(error, error, HandlerType.AND_THROW_FOR);
+            throw (X) error;
+        }
+
+        return self();
+    }
+
+    /**
+     * Method that will rethrow to given exception, only when one of exception on given list will be thrown while execution of supplier.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @return instance of wrapper to further chaining.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public <X extends Throwable> W andRethrowFor(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
+
+        if (checkAnyClassIsAllowed(true, expectingExceptions)) {
+            throw rethrow(HandlerType.AND_RETHROW_FOR, rethrowMethod, error);
+        }
+
+        return self();
+    }
+
+    /**
+     * Method that will rethrow to given exception, for all children exceptions of given exception.
+     *
+     * @param rethrowMethod      method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return instance of wrapper to further chaining.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public <X extends Throwable> W andRethrowForParent(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class expectingException) throws X {
+
+        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !isUsed(error.getClass())) {
+            registerAsUsed(error.getClass());
+            throw rethrow(HandlerType.AND_RETHROW_FOR_PARENT, rethrowMethod, error);
+        }
+
+        return self();
+    }
+
+    /**
+     * Method that will invoke given method only when one of given exception list will be thrown while execution of supplier.
+     *
+     * @param errorConsumer       method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return instance of wrapper to further chaining.
+     */
+    public W andInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+
+        if (checkAnyClassIsAllowed(false, expectingExceptions)) {
+            recordMatch(HandlerType.AND_INVOKE_FOR, error);
+            errorConsumer.accept(error);
+        }
+
+        return self();
+    }
+
+    /**
+     * Method that will invoke given method, for all children exceptions of given exception.
+     *
+     * @param errorConsumer      method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return instance of wrapper to further chaining.
+     */
+    public W andInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
+
+        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !isUsed(error.getClass())) {
+            recordMatch(HandlerType.AND_INVOKE_FOR_PARENT, error);
+            errorConsumer.accept(error);
+        }
+
+        return self();
+    }
+
+    /**
+     * Method that will rethrow to given exception, when thrown exception or any of its causes is one of exception on given list.
+     * Rethrow method receives the matched cause, e.g. {@link java.io.IOException} wrapped in {@link java.io.UncheckedIOException}.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be found in cause chain.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @return instance of wrapper to further chaining.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public <X extends Throwable> W andRethrowForCause(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
+
+        Throwable cause = findCause(true, expectingExceptions);
+        if (Objects.nonNull(cause)) {
+            throw rethrow(HandlerType.AND_RETHROW_FOR_CAUSE, rethrowMethod, cause);
+        }
+
+        return self();
+    }
+
+    /**
+     * Method that will invoke given method, when thrown exception or any of its causes is one of exception on given list.
+     * Error consumer receives the matched cause.
+     *
+     * @param errorConsumer       method which will be invoked if one of exception will be found in cause chain.
+     * @param expectingExceptions list of expected exceptions.
+     * @return instance of wrapper to further chaining.
+     */
+    public W andInvokeForCause(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+
+        Throwable cause = findCause(false, expectingExceptions);
+        if (Objects.nonNull(cause)) {
+            recordMatch(HandlerType.AND_INVOKE_FOR_CAUSE, cause);
+            errorConsumer.accept(cause);
+        }
+
+        return self();
+    }
+
+    /**
+     * Method that will execute the supplier again, when one of exception on given list will be thrown while its execution.
+     * Retries are done before the rest of chain, which then handles only the exception of the last attempt.
+     * Wrappers of already completed code, e.g. inside {@link AsyncExceptionWrapper}, cannot execute it again and are not retried.
+     * <pre>{@code
+     * String value = ExceptionWrapper.handle(() -> read())
+     *         .andRetryFor(3, Backoff.exponential(Duration.ofMillis(10), Duration.ofSeconds(1)), SocketTimeoutException.class)
+     *         .thenRethrowFor(IllegalStateException::new);
+     * }</pre>
+     *
+     * @param maxAttempts         maximal number of executions, including the first one.
+     * @param backoff             delay between attempts.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return instance of wrapper to further chaining.
+     */
+    public W andRetryFor(int maxAttempts, @NonNull Backoff backoff, @NonNull Class... expectingExceptions) {
+        return andRetryFor(maxAttempts, backoff, RetryBudget.unlimited(), expectingExceptions);
+    }
+
+    /**
+     * Method that will execute the supplier again, like {@link #andRetryFor(int, Backoff, Class[])}, as long as given budget allows it.
+     *
+     * @param maxAttempts         maximal number of executions, including the first one.
+     * @param backoff             delay between attempts.
+     * @param budget              budget of retries, usually shared by many executions.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return instance of wrapper to further chaining.
+     */
+    public W andRetryFor(int maxAttempts, @NonNull Backoff backoff, @NonNull RetryBudget budget, @NonNull Class... expectingExceptions) {
+        Retry.checkMaxAttempts(maxAttempts);
+
+        if (Objects.isNull(error) || !isRerunnable()) {
+            return self();
+        }
+
+        Retry retry = new Retry(maxAttempts, backoff, budget, expectingExceptions);
+        long delay = 0L;
+        for (int attempt = 1; Objects.nonNull(error); attempt++) {
+            delay = retry.pause(error, attempt, delay);
+            if (delay < 0) {
+                break;
+            }
+            rerun();
+        }
+
+        return self();
+    }
+
+    /**
+     * Method to allow throwing unchecked exceptions as checked in finalizer methods.
+     *
+     * @return instance of wrapper to further chaining.
+     */
+    public W rethrowUnsafe() {
+        this.rethrowUnsafe = true;
+        return self();
+    }
+
+    /**
+     * Body of thenRethrowFor finalizers.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    <X extends Throwable> void finishRethrowFor(Function<Throwable, X> rethrowMethod, Class... expectingExceptions) throws X {
+
+        boolean isError =
+                //If expecting exceptions is empty
+                (expectingExceptions.length == 0
+                        //And error is present
+                        && Objects.nonNull(error))
+                        //Or Any of given classes are allowed
+                        || checkAnyClassIsAllowed(true, expectingExceptions);
+
+        if (isError) {
+            throw rethrow(HandlerType.THEN_RETHROW_FOR, rethrowMethod, error);
+        }
+
+        escapeUnhandledRuntimeExceptions();
+    }
+
+    /**
+     * Body of thenRethrowForParent finalizers.
+     *
+     * @param rethrowMethod      method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    <X extends Throwable> void finishRethrowForParent(Function<Throwable, X> rethrowMethod, Class expectingException) throws X {
+
+        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !isUsed(error.getClass())) {
+            registerAsUsed(error.getClass());
+            throw rethrow(HandlerType.THEN_RETHROW_FOR_PARENT, rethrowMethod, error);
+        }
+
+        escapeUnhandledRuntimeExceptions();
+    }
+
+    /**
+     * Body of thenRethrowForUnhandled finalizers.
+     *
+     * @param exceptionSupplier function that returns an exception which will be used in rethrow.
+     * @param <X>               any {@link Throwable}.
+     * @throws X any {@link Throwable}.
+     */
+    <X extends Throwable> void finishRethrowForUnhandled(Function<Throwable, X> exceptionSupplier) throws X {
+
+        if (Objects.nonNull(error) && isUnhandled(error.getClass())) {
+            throw rethrow(HandlerType.THEN_RETHROW_FOR_UNHANDLED, exceptionSupplier, error);
+        }
+    }
+
+    /**
+     * Body of thenInvokeFor finalizers.
+     *
+     * @param errorConsumer       method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     */
+    void finishInvokeFor(Consumer<Throwable> errorConsumer, Class... expectingExceptions) {
+
+        boolean isError =
+                //If expecting exceptions is empty
+                (expectingExceptions.length == 0
+                        //And error is present
+                        && Objects.nonNull(error))
+                        //Or Any of given classes are allowed
+                        || checkAnyClassIsAllowed(true, expectingExceptions);
+
+        if (isError) {
+            recordMatch(HandlerType.THEN_INVOKE_FOR, error);
+            errorConsumer.accept(error);
+        } else {
+            escapeUnhandledRuntimeExceptions();
+        }
+    }
+
+    /**
+     * Body of thenInvokeForParent finalizers.
+     *
+     * @param errorConsumer      method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     */
+    void finishInvokeForParent(Consumer<Throwable> errorConsumer, Class expectingException) {
+
+        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !isUsed(error.getClass())) {
+            recordMatch(HandlerType.THEN_INVOKE_FOR_PARENT, error);
+            errorConsumer.accept(error);
+        } else {
+            escapeUnhandledRuntimeExceptions();
+        }
+    }
+
+    /**
+     * Body of thenInvokeForUnhandled finalizers.
+     *
+     * @param errorConsumer method which will be invoked if one of exception will be thrown in supplier.
+     */
+    void finishInvokeForUnhandled(Consumer<Throwable> errorConsumer) {
+
+        if (Objects.nonNull(error) && isUnhandled(error.getClass())) {
+            recordMatch(HandlerType.THEN_INVOKE_FOR_UNHANDLED, error);
+            errorConsumer.accept(error);
+        }
+    }
+
+    /**
+     * Body of thenRethrowForCause finalizers.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be found in cause chain.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    <X extends Throwable> void finishRethrowForCause(Function<Throwable, X> rethrowMethod, Class... expectingExceptions) throws X {
+
+        Throwable cause = findCause(true, expectingExceptions);
+        if (Objects.nonNull(cause)) {
+            throw rethrow(HandlerType.THEN_RETHROW_FOR_CAUSE, rethrowMethod, cause);
+        }
+
+        escapeUnhandledRuntimeExceptions();
+    }
+
+    /**
+     * Body of thenInvokeForCause finalizers.
+     *
+     * @param errorConsumer       method which will be invoked if one of exception will be found in cause chain.
+     * @param expectingExceptions list of expected exceptions.
+     */
+    void finishInvokeForCause(Consumer<Throwable> errorConsumer, Class... expectingExceptions) {
+
+        Throwable cause = findCause(true, expectingExceptions);
+        if (Objects.nonNull(cause)) {
+            recordMatch(HandlerType.THEN_INVOKE_FOR_CAUSE, cause);
+            errorConsumer.accept(cause);
+        } else {
+            escapeUnhandledRuntimeExceptions();
+        }
+    }
+
+    /**
+     * Body of andRecoverFor methods.
+     *
+     * @param expectingExceptions list of expected exceptions.
+     * @return exception which have to be recovered, or null if none of handlers matched.
+     */
+    Throwable recoverFor(Class... expectingExceptions) {
+
+        if (checkAnyClassIsAllowed(true, expectingExceptions)) {
+            return recover(HandlerType.AND_RECOVER_FOR);
+        }
+
+        return null;
+    }
+
+    /**
+     * Body of andRecoverForParent methods.
+     *
+     * @param expectingException parent exception.
+     * @return exception which have to be recovered, or null if none of handlers matched.
+     */
+    Throwable recoverForParent(Class expectingException) {
+
+        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !isUsed(error.getClass())) {
+            registerAsUsed(error.getClass());
+            return recover(HandlerType.AND_RECOVER_FOR_PARENT);
+        }
+
+        return null;
+    }
+
+    /**
+     * Body of thenRecoverFor finalizers.
+     *
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return exception which have to be recovered, or null if none of handlers matched.
+     */
+    Throwable finishRecoverFor(Class... expectingExceptions) {
+        return finishMatchFor(HandlerType.THEN_RECOVER_FOR, expectingExceptions);
+    }
+
+    /**
+     * Body of toResult finalizer.
+     *
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return exception which have to be returned as failure, or null if none of handlers matched.
+     */
+    Throwable finishToResult(Class... expectingExceptions) {
+        return finishMatchFor(HandlerType.THEN_TO_RESULT, expectingExceptions);
+    }
+
+    /**
+     * Common body of finalizers, which turn matched exception into a value.
+     *
+     * @param type                type of finalizer.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return matched exception, or null if none of handlers matched.
+     */
+    private Throwable finishMatchFor(HandlerType type, Class... expectingExceptions) {
+
+        boolean isError =
+                //If expecting exceptions is empty
+                (expectingExceptions.length == 0
+                        //And error is present
+                        && Objects.nonNull(error))
+                        //Or Any of given classes are allowed
+                        || checkAnyClassIsAllowed(true, expectingExceptions);
+
+        if (isError) {
+            return recover(type);
+        }
+
+        escapeUnhandledRuntimeExceptions();
+        return null;
+    }
+
+    /**
+     * Body of thenRecoverForParent finalizers.
+     *
+     * @param expectingException parent exception.
+     * @return exception which have to be recovered, or null if none of handlers matched.
+     */
+    Throwable finishRecoverForParent(Class expectingException) {
+
+        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !isUsed(error.getClass())) {
+            return recover(HandlerType.THEN_RECOVER_FOR_PARENT);
+        }
+
+        escapeUnhandledRuntimeExceptions();
+        return null;
+    }
+
+    /**
+     * Body of thenRecoverForUnhandled finalizers.
+     *
+     * @return exception which have to be recovered, or null if there is no unhandled exception.
+     */
+    Throwable finishRecoverForUnhandled() {
+
+        if (Objects.nonNull(error) && isUnhandled(error.getClass())) {
+            return recover(HandlerType.THEN_RECOVER_FOR_UNHANDLED);
+        }
+
+        return null;
+    }
+
+    /**
+     * Check that wrapped code can be executed again by {@link #rerun()}.
+     *
+     * @return flag that wrapper owns its code.
+     */
+    boolean isRerunnable() {
+        return true;
+    }
+
+    /**
+     * Executes wrapped code again, replacing previous result and error.
+     */
+    abstract void rerun();
+
+    /**
+     * Records that handler of given type matched given exception.
+     *
+     * @param type    type of matched handler.
+     * @param matched exception passed to the handler.
+     */
+    private void recordMatch(HandlerType type, Throwable matched) {
+        ExceptionMetrics.record(matched.getClass(), type);
+        FlightEvents.handlerMatched(matched.getClass(), type);
+    }
+
+    /**
+     * Records match of rethrowing handler and creates exception which have to be thrown.
+     *
+     * @param type          type of matched handler.
+     * @param rethrowMethod method which creates exception to throw.
+     * @param matched       exception passed to the handler.
+     * @param <X>           {@link Throwable} which will be thrown.
+     * @return exception which have to be thrown.
+     */
+    private <X extends Throwable> X rethrow(HandlerType type, Function<Throwable, X> rethrowMethod, Throwable matched) {
+        recordMatch(type, matched);
+        X rethrown = rethrowMethod.apply(matched);
+        FlightEvents.exceptionRethrown(matched, rethrown, type);
+        return rethrown;
+    }
+
+    /**
+     * Records match of recovering handler and clears the error, so the rest of chain sees a successful call.
+     *
+     * @param type type of matched handler.
+     * @return exception which have to be recovered.
+     */
+    private Throwable recover(HandlerType type) {
+        Throwable recovered = error;
+        recordMatch(type, recovered);
+        error = null;
+        return recovered;
+    }
+
+    @SuppressWarnings("unchecked")
+    private W self() {
+        return (W) this;
+    }
+
+    /**
+     * Check that given classes is allowed to use in given method.
+     * Without an error no handler can fire, so the used exceptions are tracked only on the failure path.
+     *
+     * @param registerExceptionAsUsed register given classes as used.
+     * @param classes                 classes which have to be checked.
+     * @return flag that classes are allowed or not.
+     */
+    private boolean checkAnyClassIsAllowed(boolean registerExceptionAsUsed, Class... classes) {
+        if (Objects.isNull(error)) {
+            return false;
+        }
+
+        checkAlreadyUsed(classes);
+
+        boolean allowed = false;
+        for (Class cl : classes) {
+            if (registerExceptionAsUsed) {
+                registerAsUsed(cl);
+            }
+            allowed |= error.getClass().equals(cl);
+        }
+
+        return allowed;
+    }
+
+    /**
+     * Find the first exception in cause chain, starting from the thrown one, which class is equal to one of given classes.
+     * Chain is walked up to {@link #MAX_CAUSE_DEPTH} causes, so cyclic chains are not a problem.
+     *
+     * @param registerExceptionAsUsed register given classes as used.
+     * @param classes                 classes which have to be found.
+     * @return matched exception, or null if none of causes matches.
+     */
+    private Throwable findCause(boolean registerExceptionAsUsed, Class... classes) {
+        if (Objects.isNull(error)) {
+            return null;
+        }
+
+        checkAlreadyUsed(classes);
+
+        if (registerExceptionAsUsed) {
+            for (Class cl : classes) {
+                registerAsUsed(cl);
+            }
+        }
+
+        Throwable cause = error;
+        for (int depth = 0; Objects.nonNull(cause) && depth <= MAX_CAUSE_DEPTH; depth++) {
+            for (Class cl : classes) {
+                if (cl.equals(cause.getClass())) {
+                    return cause;
+                }
+            }
+            cause = cause.getCause();
+        }
+
+        return null;
+    }
+
+    /**
+     * Check that given classes was already used.
+     *
+     * @param classes classes which have to be checked.
+     */
+    private void checkAlreadyUsed(Class... classes) {
+        if (!DuplicateHandlerReporter.isEnabled()) {
+            return;
+        }
+
+        for (Class cl : classes) {
+            if (isUsed(cl)) {
+                DuplicateHandlerReporter.report(cl);
+            }
+        }
+    }
+
+    /**
+     * Register given class as used.
+     *
+     * @param usedClass class which have to be registered.
+     */
+    private void registerAsUsed(Class usedClass) {
+        if (Objects.isNull(usedExceptions)) {
+            usedExceptions = new HashSet<>();
+        }
+        usedExceptions.add(usedClass);
+    }
+
+    /**
+     * Checks that class was already used.
+     *
+     * @param usedClass class which have to be checked.
+     * @return flag that class is used or not.
+     */
+    private boolean isUsed(Class usedClass) {
+        return Objects.nonNull(usedExceptions) && usedExceptions.contains(usedClass);
+    }
+
+    /**
+     * Checks that class is unhandled.
+     *
+     * @param unhandledClass class which have to be checked.
+     * @return flag that classes are unhandled or not.
+     */
+    private boolean isUnhandled(Class unhandledClass) {
+        return !isUsed(unhandledClass);
+    }
+
+    /**
+     * Check that given class is children of given parent class.
+     *
+     * @param childrenClass children class which will be checked.
+     * @param parentClass   parent class which will be checked.
+     * @return flag that indicates that given children class is children of given parent class.
+     */
+    private boolean isChildrenOf(Class childrenClass, Class parentClass) {
+        return !childrenClass.equals(parentClass) && parentClass.isAssignableFrom(childrenClass);
+    }
+
+    /**
+     * Escape unhandled exceptions.
+     */
+    private void escapeUnhandledRuntimeExceptions() {
+        if (Objects.isNull(error)) {
+            return;
+        }
+
+        boolean allowEscape = (this.rethrowUnsafe || error instanceof RuntimeException)
+                && checkAnyClassIsAllowed(false, error.getClass());
+
+        if (allowEscape) {
+            throw escapeRuntimeException(error);
+        }
+    }
+
+    /**
+     * Cast a CheckedException as an unchecked one.
+     *
+     * @param throwable to cast
+     * @param <X>       the type of the Throwable
+     * @return this method will never return a Throwable instance, it will just throw it.
+     * @throws T the throwable as an unchecked throwable
+     */
+    @SuppressWarnings("unchecked")
+    private <X extends Throwable> RuntimeException escapeRuntimeException(Throwable throwable) throws X {
+        throw (X) throwable;
+    }
+}
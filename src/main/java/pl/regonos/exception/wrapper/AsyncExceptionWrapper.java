@@ -0,0 +1,264 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Asynchronous variant of {@link ExceptionWrapper}. Every chaining method composes a new stage onto {@link CompletableFuture},
+ * and finalizer methods return a future of the handled value, so the calling thread is never blocked.
+ * {@link CompletionException} and {@link ExecutionException} are unwrapped before matching, and exceptions thrown by handlers
+ * complete the returned future exceptionally.
+ *
+ * @param <T> every object which will be returned later in process.
+ * @author Igor Maculewicz
+ */
+public class AsyncExceptionWrapper<T> {
+
+    private final CompletableFuture<ExceptionWrapper<T>> wrapper;
+
+    private AsyncExceptionWrapper(CompletableFuture<ExceptionWrapper<T>> wrapper) {
+        this.wrapper = wrapper;
+    }
+
+    static <T> AsyncExceptionWrapper<T> supply(ThrowingSupplier<T> supplier, Executor executor) {
+        return new AsyncExceptionWrapper<>(CompletableFuture.supplyAsync(() -> {
+            try {
+                return new ExceptionWrapper<>(supplier.get(), null);
+            } catch (Throwable ex) {
+                return new ExceptionWrapper<>(null, unwrap(ex));
+            }
+        }, executor));
+    }
+
+    static <T> AsyncExceptionWrapper<T> of(CompletionStage<T> stage) {
+        return new AsyncExceptionWrapper<>(stage.handle((result, ex) -> new ExceptionWrapper<>(result, unwrap(ex)))
+                .toCompletableFuture());
+    }
+
+    /**
+     * If expected exception is thrown, propagate it higher.
+     *
+     * @param expectingException exception which will be propagated
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> andThrowFor(@NonNull Class<? extends Throwable> expectingException) {
+        return andThen(w -> w.andThrowFor(expectingException));
+    }
+
+    /**
+     * Method that will rethrow to given exception, only when one of exception on given list will be thrown while execution of supplier.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions.
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> andRethrowFor(@NonNull Function<Throwable, ? extends Throwable> rethrowMethod, @NonNull Class... expectingExceptions) {
+        return andThen(w -> w.andRethrowFor(rethrowMethod, expectingExceptions));
+    }
+
+    /**
+     * Method that will rethrow to given exception, for all children exceptions of given exception.
+     *
+     * @param rethrowMethod      method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> andRethrowForParent(@NonNull Function<Throwable, ? extends Throwable> rethrowMethod, @NonNull Class expectingException) {
+        return andThen(w -> w.andRethrowForParent(rethrowMethod, expectingException));
+    }
+
+    /**
+     * Method that will invoke given method only when one of given exception list will be thrown while execution of supplier.
+     *
+     * @param errorConsumer       method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions.
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> andInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+        return andThen(w -> w.andInvokeFor(errorConsumer, expectingExceptions));
+    }
+
+    /**
+     * Method that will invoke given method, for all children exceptions of given exception.
+     *
+     * @param errorConsumer      method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> andInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
+        return andThen(w -> w.andInvokeForParent(errorConsumer, expectingException));
+    }
+
+    /**
+     * Method that will rethrow to given exception, when thrown exception or any of its causes is one of exception on given list.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> andRethrowForCause(@NonNull Function<Throwable, ? extends Throwable> rethrowMethod, @NonNull Class... expectingExceptions) {
+        return andThen(w -> w.andRethrowForCause(rethrowMethod, expectingExceptions));
+    }
+
+    /**
+     * Method that will invoke given method, when thrown exception or any of its causes is one of exception on given list.
+     *
+     * @param errorConsumer       method which will be invoked, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> andInvokeForCause(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+        return andThen(w -> w.andInvokeForCause(errorConsumer, expectingExceptions));
+    }
+
+    /**
+     * Method to allow throwing unchecked exceptions as checked in finalizer methods.
+     *
+     * @return instance of {@link AsyncExceptionWrapper} to further chaining.
+     */
+    public AsyncExceptionWrapper<T> rethrowUnsafe() {
+        return andThen(ExceptionWrapper::rethrowUnsafe);
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, only when one of exception on given list will be thrown while execution of supplier.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions.
+     * @return future of <T> value, completed exceptionally if exception was rethrown.
+     */
+    public CompletableFuture<T> thenRethrowFor(@NonNull Function<Throwable, ? extends Throwable> rethrowMethod, @NonNull Class... expectingExceptions) {
+        return finish(w -> w.thenRethrowFor(rethrowMethod, expectingExceptions));
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, for all children exceptions of given exception.
+     *
+     * @param rethrowMethod      method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return future of <T> value, completed exceptionally if exception was rethrown.
+     */
+    public CompletableFuture<T> thenRethrowForParent(@NonNull Function<Throwable, ? extends Throwable> rethrowMethod, @NonNull Class expectingException) {
+        return finish(w -> w.thenRethrowForParent(rethrowMethod, expectingException));
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, only if it wasn't handled before in chain.
+     *
+     * @param exceptionSupplier function that returns an exception which will be used in rethrow.
+     * @return future of <T> value, completed exceptionally if exception was rethrown.
+     */
+    public CompletableFuture<T> thenRethrowForUnhandled(@NonNull Function<Throwable, ? extends Throwable> exceptionSupplier) {
+        return finish(w -> w.thenRethrowForUnhandled(exceptionSupplier));
+    }
+
+    /**
+     * Finalizer method that will invoke given method only when one of given exception list will be thrown while execution of supplier.
+     *
+     * @param errorConsumer       method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return future of <T> value.
+     */
+    public CompletableFuture<T> thenInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+        return finish(w -> w.thenInvokeFor(errorConsumer, expectingExceptions));
+    }
+
+    /**
+     * Finalizer method that will invoke given method, for all children exceptions of given exception.
+     *
+     * @param errorConsumer      method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return future of <T> value.
+     */
+    public CompletableFuture<T> thenInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
+        return finish(w -> w.thenInvokeForParent(errorConsumer, expectingException));
+    }
+
+    /**
+     * Finalizer method that will invoke given method, only if it wasn't handled before in chain.
+     *
+     * @param errorConsumer method which will be invoked if one of exception will be thrown in supplier.
+     * @return future of <T> value.
+     */
+    public CompletableFuture<T> thenInvokeForUnhandled(@NonNull Consumer<Throwable> errorConsumer) {
+        return finish(w -> w.thenInvokeForUnhandled(errorConsumer));
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, when thrown exception or any of its causes is one of exception on given list.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
+     * @return future of <T> value, completed exceptionally if exception was rethrown.
+     */
+    public CompletableFuture<T> thenRethrowForCause(@NonNull Function<Throwable, ? extends Throwable> rethrowMethod, @NonNull Class... expectingExceptions) {
+        return finish(w -> w.thenRethrowForCause(rethrowMethod, expectingExceptions));
+    }
+
+    /**
+     * Finalizer method that will invoke given method, when thrown exception or any of its causes is one of exception on given list.
+     *
+     * @param errorConsumer       method which will be invoked, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
+     * @return future of <T> value.
+     */
+    public CompletableFuture<T> thenInvokeForCause(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+        return finish(w -> w.thenInvokeForCause(errorConsumer, expectingExceptions));
+    }
+
+    /**
+     * Finalizer method that will complete with outcome of supplier as {@link Result}, see {@link ExceptionWrapper#toResult(Class[])}.
+     *
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return future of result.
+     */
+    public CompletableFuture<Result<T>> toResult(@NonNull Class... expectingExceptions) {
+        return wrapper.thenApply(w -> apply(wrapped -> wrapped.toResult(expectingExceptions), w));
+    }
+
+    private AsyncExceptionWrapper<T> andThen(Step<T, ExceptionWrapper<T>> step) {
+        return new AsyncExceptionWrapper<>(wrapper.thenApply(w -> apply(step, w)));
+    }
+
+    private CompletableFuture<T> finish(Step<T, T> step) {
+        return wrapper.thenApply(w -> apply(step, w));
+    }
+
+    private static <T, R> R apply(Step<T, R> step, ExceptionWrapper<T> wrapper) {
+        try {
+            return step.apply(wrapper);
+        } catch (Throwable ex) {
+            throw new CompletionException(ex);
+        }
+    }
+
+    /**
+     * Unwrap exceptions used by futures to transport the real cause.
+     *
+     * @param error exception to unwrap.
+     * @return the first exception which is not a future wrapper, or null if there is no exception.
+     */
+    static Throwable unwrap(Throwable error) {
+        Throwable unwrapped = error;
+        while ((unwrapped instanceof CompletionException || unwrapped instanceof ExecutionException) && unwrapped.getCause() != null) {
+            unwrapped = unwrapped.getCause();
+        }
+        return unwrapped;
+    }
+
+    /**
+     * Single step of chain applied to the wrapper.
+     */
+    @FunctionalInterface
+    private interface Step<T, R> {
+
+        R apply(ExceptionWrapper<T> wrapper) throws Throwable;
+    }
+}
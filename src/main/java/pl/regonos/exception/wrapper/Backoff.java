@@ -0,0 +1,86 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Delay between retries of andRetryFor handlers.
+ * Delays are computed in nanoseconds, so no {@link Duration} is allocated per retry.
+ *
+ * @author Igor Maculewicz
+ */
+@FunctionalInterface
+public interface Backoff {
+
+    /**
+     * Computes delay before given retry.
+     *
+     * @param retry              number of retry, starting from 1.
+     * @param previousDelayNanos delay before previous retry, 0 before the first one.
+     * @return delay in nanoseconds, not positive value means no delay.
+     */
+    long nextDelayNanos(int retry, long previousDelayNanos);
+
+    /**
+     * Retries immediately.
+     *
+     * @return backoff without delay.
+     */
+    static Backoff none() {
+        return (retry, previousDelayNanos) -> 0L;
+    }
+
+    /**
+     * Waits the same time before every retry.
+     *
+     * @param delay delay before every retry.
+     * @return fixed backoff.
+     */
+    static Backoff fixed(@NonNull Duration delay) {
+        long delayNanos = BackoffDelays.checkNotNegative(delay);
+        return (retry, previousDelayNanos) -> delayNanos;
+    }
+
+    /**
+     * Doubles delay before every retry, up to given maximum.
+     *
+     * @param initialDelay delay before the first retry.
+     * @param maxDelay     maximal delay.
+     * @return exponential backoff.
+     */
+    static Backoff exponential(@NonNull Duration initialDelay, @NonNull Duration maxDelay) {
+        long initialNanos = BackoffDelays.checkNotNegative(initialDelay);
+        long maxNanos = BackoffDelays.checkNotLess(maxDelay, initialNanos);
+        return (retry, previousDelayNanos) -> {
+            int shift = retry - 1;
+            if (shift >= Long.SIZE - 1 || initialNanos > maxNanos >> shift) {
+                return maxNanos;
+            }
+            return initialNanos << shift;
+        };
+    }
+
+    /**
+     * Picks random delay between base delay and three times the previous one, up to given maximum.
+     * Randomized delays spread retries of many callers failed at the same time, instead of retrying them all together.
+     *
+     * @param baseDelay minimal delay.
+     * @param maxDelay  maximal delay.
+     * @return decorrelated jitter backoff.
+     */
+    static Backoff decorrelatedJitter(@NonNull Duration baseDelay, @NonNull Duration maxDelay) {
+        long baseNanos = BackoffDelays.checkNotNegative(baseDelay);
+        long maxNanos = BackoffDelays.checkNotLess(maxDelay, baseNanos);
+        return (retry, previousDelayNanos) -> {
+            long previous = Math.max(previousDelayNanos, baseNanos);
+            long upper = previous > maxNanos / 3 ? maxNanos : previous * 3;
+            if (upper <= baseNanos) {
+                return baseNanos;
+            }
+            //Bound is exclusive, clamped so it does not overflow for maximal delay close to Long.MAX_VALUE
+            return ThreadLocalRandom.current().nextLong(baseNanos, Math.min(upper, Long.MAX_VALUE - 1) + 1);
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package pl.regonos.exception.wrapper;
+
+import java.time.Duration;
+
+/**
+ * Validation of delays given to {@link Backoff} factories.
+ *
+ * @author Igor Maculewicz
+ */
+final class BackoffDelays {
+
+    private BackoffDelays() {
+    }
+
+    /**
+     * Validates that delay is not negative and converts it to nanoseconds.
+     *
+     * @param delay delay to validate.
+     * @return delay in nanoseconds.
+     * @throws IllegalArgumentException if delay is negative.
+     */
+    static long checkNotNegative(Duration delay) {
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("Delay cannot be negative, was: " + delay);
+        }
+        return delay.toNanos();
+    }
+
+    /**
+     * Validates that maximal delay is not less than the minimal one and converts it to nanoseconds.
+     *
+     * @param maxDelay maximal delay to validate.
+     * @param minNanos minimal delay in nanoseconds.
+     * @return maximal delay in nanoseconds.
+     * @throws IllegalArgumentException if maximal delay is negative or less than the minimal one.
+     */
+    static long checkNotLess(Duration maxDelay, long minNanos) {
+        long maxNanos = checkNotNegative(maxDelay);
+        if (maxNanos < minNanos) {
+            throw new IllegalArgumentException("Maximal delay cannot be less than initial one, was: " + maxDelay);
+        }
+        return maxNanos;
+    }
+}
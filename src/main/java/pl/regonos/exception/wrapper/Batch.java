@@ -0,0 +1,152 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Execution of a batch of suppliers, which writes outcomes straight into result arrays.
+ * Every index is written by exactly one caller of {@link #run(int, int)}, so disjoint ranges can be run concurrently.
+ * Array of errors is allocated only when the first supplier fails, so a successful batch allocates just the results.
+ *
+ * @param <T> every object which is returned from suppliers.
+ * @author Igor Maculewicz
+ */
+final class Batch<T> {
+
+    /**
+     * Number of ranges per worker, more ranges let work stealing balance suppliers of different duration.
+     */
+    private static final int SPLITS_PER_WORKER = 8;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Batch, Throwable[]> ERRORS =
+            AtomicReferenceFieldUpdater.newUpdater(Batch.class, Throwable[].class, "errors");
+
+    private final List<? extends ThrowingSupplier<? extends T>> suppliers;
+    private final ExceptionPolicy<?> policy;
+    private final Object[] results;
+    private volatile Throwable[] errors;
+
+    /**
+     * Creates batch with result array sized for given suppliers.
+     *
+     * @param suppliers suppliers to execute.
+     * @param policy    policy which handles exceptions, or null if every exception is a failure.
+     */
+    Batch(List<? extends ThrowingSupplier<? extends T>> suppliers, ExceptionPolicy<?> policy) {
+        this.suppliers = suppliers instanceof RandomAccess ? suppliers : new ArrayList<>(suppliers);
+        this.policy = policy;
+        this.results = new Object[suppliers.size()];
+    }
+
+    int size() {
+        return results.length;
+    }
+
+    /**
+     * Executes suppliers with indexes from given range.
+     *
+     * @param from first index, inclusive.
+     * @param to   last index, exclusive.
+     * @return flag that any supplier in range failed.
+     */
+    boolean run(int from, int to) {
+        boolean failed = false;
+
+        for (int i = from; i < to; i++) {
+            try {
+                results[i] = suppliers.get(i).get();
+            } catch (Throwable ex) {
+                failed |= handleError(i, ex);
+            }
+        }
+
+        return failed;
+    }
+
+    /**
+     * Executes all suppliers in given pool. Ranges are split between workers and only their failure flags are merged,
+     * so workers do not share any lock.
+     *
+     * @param pool pool which will execute suppliers.
+     * @return result of the batch.
+     */
+    BatchResult<T> runParallel(ForkJoinPool pool) {
+        int threshold = Math.max(1, size() / (pool.getParallelism() * SPLITS_PER_WORKER));
+        return toResult(pool.invoke(new RangeTask(0, size(), threshold)));
+    }
+
+    /**
+     * Creates result of the batch. Has to be called after all ranges are run.
+     *
+     * @param failed flag that any supplier failed.
+     * @return result of the batch.
+     */
+    BatchResult<T> toResult(boolean failed) {
+        return new BatchResult<>(results, failed ? errors : null);
+    }
+
+    private boolean handleError(int index, Throwable error) {
+        if (Objects.isNull(policy)) {
+            recordFailure(index, error);
+            return true;
+        }
+
+        try {
+            results[index] = policy.handleError(error, suppliers.get(index));
+            return false;
+        } catch (Throwable ex) {
+            recordFailure(index, ex);
+            return true;
+        }
+    }
+
+    /**
+     * Records failure of supplier, allocating array of errors on the first one. Concurrent ranges agree on the array
+     * with a CAS, and their writes are published to {@link #toResult(boolean)} by joining the ranges.
+     */
+    private void recordFailure(int index, Throwable error) {
+        Throwable[] current = errors;
+        if (Objects.isNull(current)) {
+            ERRORS.compareAndSet(this, null, new Throwable[results.length]);
+            current = errors;
+        }
+        current[index] = error;
+    }
+
+    /**
+     * Task executing a range of suppliers, which is split in halves until it is small enough.
+     */
+    private final class RangeTask extends RecursiveTask<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        private RangeTask(int from, int to, int threshold) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (to - from <= threshold) {
+                return run(from, to);
+            }
+
+            int middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(from, middle, threshold);
+            left.fork();
+            boolean failed = new RangeTask(middle, to, threshold).compute();
+            return left.join() | failed;
+        }
+    }
+}
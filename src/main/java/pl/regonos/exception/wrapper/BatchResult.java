@@ -0,0 +1,115 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact result of batch execution, see {@link ExceptionWrapper#handleAll(List)}.
+ * Results and errors are stored in arrays indexed the same way as executed suppliers, instead of one wrapper per supplier.
+ *
+ * @param <T> every object which is returned from suppliers.
+ * @author Igor Maculewicz
+ */
+public final class BatchResult<T> {
+
+    private final Object[] results;
+    /**
+     * Null if none of suppliers failed.
+     */
+    private final Throwable[] errors;
+    private final BitSet failures;
+
+    BatchResult(Object[] results, Throwable[] errors) {
+        this.results = results;
+        this.errors = errors;
+        this.failures = new BitSet(results.length);
+
+        if (Objects.nonNull(errors)) {
+            for (int i = 0; i < errors.length; i++) {
+                if (Objects.nonNull(errors[i])) {
+                    failures.set(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of executed suppliers.
+     *
+     * @return number of executed suppliers.
+     */
+    public int size() {
+        return results.length;
+    }
+
+    /**
+     * Number of failed suppliers.
+     *
+     * @return number of failed suppliers.
+     */
+    public int failureCount() {
+        return failures.cardinality();
+    }
+
+    /**
+     * Check that supplier with given index failed.
+     *
+     * @param index index of supplier.
+     * @return flag that supplier failed.
+     */
+    public boolean isFailure(int index) {
+        checkIndex(index);
+        return failures.get(index);
+    }
+
+    /**
+     * Value returned by supplier with given index.
+     *
+     * @param index index of supplier.
+     * @return returned value, null if supplier failed.
+     */
+    @SuppressWarnings("unchecked")
+    public T getResult(int index) {
+        checkIndex(index);
+        return (T) results[index];
+    }
+
+    /**
+     * Exception of supplier with given index.
+     *
+     * @param index index of supplier.
+     * @return exception, null if supplier did not fail.
+     */
+    public Throwable getError(int index) {
+        checkIndex(index);
+        return Objects.isNull(errors) ? null : errors[index];
+    }
+
+    /**
+     * Indexes of failed suppliers. Iterate them with {@link BitSet#nextSetBit(int)}.
+     *
+     * @return copy of failures bit set.
+     */
+    public BitSet getFailures() {
+        return (BitSet) failures.clone();
+    }
+
+    /**
+     * Values returned by suppliers, in supplier order. Failed suppliers have null values.
+     *
+     * @return unmodifiable list of values.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> getResults() {
+        return Collections.unmodifiableList((List<T>) Arrays.asList(results));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= results.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + results.length);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Limit of concurrent executions of a group of suppliers, so one slow dependency cannot occupy all threads of the caller.
+ * Calls over the limit wait up to given time for a free permit, and then fail with {@link BulkheadFullException}.
+ * <pre>{@code
+ * Bulkhead bulkhead = Bulkhead.builder()
+ *         .maxConcurrentCalls(20)
+ *         .maxWaitDuration(Duration.ofMillis(50))
+ *         .build();
+ *
+ * String value = ExceptionWrapper.handleWithBulkhead(() -> read(), bulkhead)
+ *         .andInvokeFor(ex -> fallback(), BulkheadFullException.class)
+ *         .thenRethrowFor(IllegalStateException::new);
+ * }</pre>
+ * Permits are a single atomic counter, so an uncontended call costs one CAS to acquire and one atomic add to release.
+ * Waiting callers are parked, and they are not served in a fair order.
+ *
+ * @author Igor Maculewicz
+ */
+public final class Bulkhead {
+
+    private final int maxConcurrentCalls;
+    private final long maxWaitNanos;
+
+    private final AtomicInteger availablePermits;
+    private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+
+    private Bulkhead(Builder builder) {
+        this.maxConcurrentCalls = builder.maxConcurrentCalls;
+        this.maxWaitNanos = builder.maxWaitDuration.toNanos();
+        this.availablePermits = new AtomicInteger(builder.maxConcurrentCalls);
+    }
+
+    /**
+     * Creates builder of bulkhead.
+     *
+     * @return new {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Number of permits which are not taken.
+     *
+     * @return number of free permits.
+     */
+    public int getAvailablePermits() {
+        return availablePermits.get();
+    }
+
+    /**
+     * Decorates given supplier, so it is executed only with a permit of this bulkhead.
+     *
+     * @param supplier which contains code that have to be limited.
+     * @param <T>      every object which will be returned from supplier.
+     * @return supplier which throws {@link BulkheadFullException} when there is no free permit.
+     */
+    public <T> ThrowingSupplier<T> decorate(@NonNull ThrowingSupplier<T> supplier) {
+        return () -> {
+            if (!tryAcquire() && !awaitPermit()) {
+                throw new BulkheadFullException(maxConcurrentCalls);
+            }
+            try {
+                return supplier.get();
+            } finally {
+                release();
+            }
+        };
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int available = availablePermits.get();
+            if (available <= 0) {
+                return false;
+            }
+            if (availablePermits.compareAndSet(available, available - 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void release() {
+        availablePermits.incrementAndGet();
+
+        Thread waiter = waiters.peek();
+        if (Objects.nonNull(waiter)) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    /**
+     * Waits for a free permit up to maximal wait duration. Interrupted caller stops waiting and keeps its interrupt flag.
+     *
+     * @return flag that permit is acquired.
+     */
+    private boolean awaitPermit() {
+        if (maxWaitNanos <= 0) {
+            return false;
+        }
+
+        Thread current = Thread.currentThread();
+        long deadline = System.nanoTime() + maxWaitNanos;
+        waiters.add(current);
+
+        try {
+            while (true) {
+                if (tryAcquire()) {
+                    return true;
+                }
+
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0 || current.isInterrupted()) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waiters.remove(current);
+            //Pass the wake up to the next waiter, in case it was meant for this one
+            if (availablePermits.get() > 0) {
+                Thread next = waiters.peek();
+                if (Objects.nonNull(next)) {
+                    LockSupport.unpark(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder of {@link Bulkhead}.
+     */
+    public static final class Builder {
+
+        private int maxConcurrentCalls = 25;
+        private Duration maxWaitDuration = Duration.ZERO;
+
+        private Builder() {
+        }
+
+        /**
+         * Maximal number of concurrent executions. By default 25.
+         *
+         * @param maxConcurrentCalls limit of concurrent calls.
+         * @return this builder to further chaining.
+         */
+        public Builder maxConcurrentCalls(int maxConcurrentCalls) {
+            if (maxConcurrentCalls < 1) {
+                throw new IllegalArgumentException("Maximal number of concurrent calls have to be positive, was: " + maxConcurrentCalls);
+            }
+            this.maxConcurrentCalls = maxConcurrentCalls;
+            return this;
+        }
+
+        /**
+         * Maximal time which call over the limit waits for a free permit. By default zero, so such call is rejected immediately.
+         *
+         * @param maxWaitDuration maximal wait time.
+         * @return this builder to further chaining.
+         */
+        public Builder maxWaitDuration(@NonNull Duration maxWaitDuration) {
+            if (maxWaitDuration.isNegative()) {
+                throw new IllegalArgumentException("Maximal wait duration cannot be negative, was: " + maxWaitDuration);
+            }
+            this.maxWaitDuration = maxWaitDuration;
+            return this;
+        }
+
+        /**
+         * Creates bulkhead with all permits free.
+         *
+         * @return new {@link Bulkhead}.
+         */
+        public Bulkhead build() {
+            return new Bulkhead(this);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Thrown instead of executing code, when {@link Bulkhead} has no free permit.
+ * It is stackless, so rejected calls fail fast also under heavy load.
+ *
+ * @author Igor Maculewicz
+ */
+public class BulkheadFullException extends LightweightException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates exception for bulkhead with given limit.
+     *
+     * @param maxConcurrentCalls limit of concurrent calls.
+     */
+    public BulkheadFullException(int maxConcurrentCalls) {
+        super("Bulkhead is full, maximal number of concurrent calls: " + maxConcurrentCalls);
+    }
+}
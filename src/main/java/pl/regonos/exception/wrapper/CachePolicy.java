@@ -0,0 +1,326 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded, concurrent cache of results, used by {@link ExceptionWrapper#handleCached(Object, ThrowingSupplier, CachePolicy)}.
+ * Entries expire after given time from write. When the cache is full, the oldest entry is evicted, but only if the new key
+ * is accessed more frequently than it, so one-off keys do not flush popular ones (TinyLFU admission).
+ * <pre>{@code
+ * CachePolicy<Long, User> cache = CachePolicy.<Long, User>builder()
+ *         .maximumSize(10_000)
+ *         .expireAfterWrite(Duration.ofMinutes(5))
+ *         .build();
+ *
+ * User user = ExceptionWrapper.handleCached(id, () -> repository.find(id), cache)
+ *         .thenRethrowFor(IllegalStateException::new);
+ * }</pre>
+ * Optionally chosen exceptions are cached too, for a shorter time, see {@link Builder#cacheFailures(Duration, Class[])}.
+ * With zero {@link Builder#expireAfterWrite(Duration)} only failures are cached.
+ * Cache is lock-free and bounded approximately: concurrent writes can exceed the maximal size by the number of writing threads.
+ * Concurrent misses of the same key are not coalesced, each of them executes its supplier.
+ *
+ * @param <K> type of keys.
+ * @param <V> type of cached values.
+ * @author Igor Maculewicz
+ */
+public final class CachePolicy<K, V> {
+
+    private final long maximumSize;
+    private final long expireAfterWriteNanos;
+    private final long failureExpireAfterWriteNanos;
+    private final Class[] cachedFailures;
+
+    private final ConcurrentMap<K, Entry<K, V>> entries = new ConcurrentHashMap<>();
+    /**
+     * Entries in order of writes. Replaced and removed entries stay here until they are skipped or compacted.
+     */
+    private final Queue<Entry<K, V>> writeOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger writeOrderSize = new AtomicInteger();
+    private final FrequencySketch sketch;
+
+    private CachePolicy(Builder<K, V> builder) {
+        this.maximumSize = builder.maximumSize;
+        this.expireAfterWriteNanos = builder.expireAfterWrite.toNanos();
+        this.failureExpireAfterWriteNanos = builder.failureExpireAfterWrite.toNanos();
+        this.cachedFailures = builder.cachedFailures;
+        this.sketch = new FrequencySketch(builder.maximumSize);
+    }
+
+    /**
+     * Creates builder of cache.
+     *
+     * @param <K> type of keys.
+     * @param <V> type of cached values.
+     * @return new {@link Builder} instance.
+     */
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Removes entry of given key.
+     *
+     * @param key key of removed entry.
+     */
+    public void invalidate(@NonNull K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * Number of entries, including expired ones which were not removed yet.
+     *
+     * @return approximate number of entries.
+     */
+    public long estimatedSize() {
+        return entries.size();
+    }
+
+    /**
+     * Decorates given supplier, so it is executed only if there is no valid entry for given key.
+     * Value returned by supplier is cached, unless values are not cached at all, exceptions are passed further and cached
+     * only if they are one of cached failures. Cached failure is thrown again, the same instance, so it is handled by
+     * the chain like a fresh one.
+     *
+     * @param key      key of cached value.
+     * @param supplier which contains code that have to be cached.
+     * @return supplier which returns cached value or throws cached failure if present.
+     */
+    ThrowingSupplier<V> decorate(K key, ThrowingSupplier<? extends V> supplier) {
+        return () -> {
+            Entry<K, V> entry = get(key);
+            if (Objects.nonNull(entry)) {
+                if (Objects.nonNull(entry.error)) {
+                    throw entry.error;
+                }
+                return entry.value;
+            }
+
+            V value;
+            try {
+                value = supplier.get();
+            } catch (Throwable ex) {
+                if (isCachedFailure(ex)) {
+                    put(key, null, ex, failureExpireAfterWriteNanos);
+                }
+                throw ex;
+            }
+            if (expireAfterWriteNanos > 0) {
+                put(key, value, null, expireAfterWriteNanos);
+            }
+            return value;
+        };
+    }
+
+    /**
+     * Check that exception class is one of cached failures.
+     */
+    private boolean isCachedFailure(Throwable error) {
+        for (Class cl : cachedFailures) {
+            if (cl.equals(error.getClass())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds valid entry of given key and records the access.
+     *
+     * @param key key of entry.
+     * @return valid entry, or null if there is none.
+     */
+    private Entry<K, V> get(K key) {
+        sketch.increment(key);
+
+        Entry<K, V> entry = entries.get(key);
+        if (Objects.isNull(entry)) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Writes entry of given key, if the cache admits it.
+     *
+     * @param key                   key of entry.
+     * @param value                 cached value.
+     * @param error                 cached failure, or null.
+     * @param expireAfterWriteNanos time to live of entry.
+     */
+    private void put(K key, V value, Throwable error, long expireAfterWriteNanos) {
+        long now = System.nanoTime();
+
+        if (entries.size() >= maximumSize && !entries.containsKey(key) && !admit(key, now)) {
+            return;
+        }
+
+        Entry<K, V> entry = new Entry<>(key, value, error, now + expireAfterWriteNanos);
+        entries.put(key, entry);
+        writeOrder.add(entry);
+
+        if (writeOrderSize.incrementAndGet() > 2 * maximumSize + 16) {
+            compactWriteOrder();
+        }
+    }
+
+    /**
+     * Evicts the oldest entry, if it is expired or less frequently accessed than given key.
+     * Entry which stays in cache is moved to the end of write order, so the next candidate is compared with another one.
+     *
+     * @param candidate key of new entry.
+     * @param now       current time.
+     * @return flag that new entry is admitted.
+     */
+    private boolean admit(K candidate, long now) {
+        Entry<K, V> victim;
+        while (Objects.nonNull(victim = writeOrder.poll())) {
+            writeOrderSize.decrementAndGet();
+
+            if (entries.get(victim.key) != victim) {
+                continue;
+            }
+
+            if (victim.isExpired(now) || sketch.frequency(candidate) > sketch.frequency(victim.key)) {
+                entries.remove(victim.key, victim);
+                return true;
+            }
+
+            writeOrder.add(victim);
+            writeOrderSize.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drops replaced and removed entries from write order.
+     */
+    private void compactWriteOrder() {
+        writeOrder.removeIf(entry -> {
+            boolean stale = entries.get(entry.key) != entry;
+            if (stale) {
+                writeOrderSize.decrementAndGet();
+            }
+            return stale;
+        });
+    }
+
+    /**
+     * Cached value or failure with its expiration time.
+     */
+    private static final class Entry<K, V> {
+
+        private final K key;
+        private final V value;
+        private final Throwable error;
+        private final long expiresAtNanos;
+
+        private Entry(K key, V value, Throwable error, long expiresAtNanos) {
+            this.key = key;
+            this.value = value;
+            this.error = error;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Builder of {@link CachePolicy}.
+     *
+     * @param <K> type of keys.
+     * @param <V> type of cached values.
+     */
+    public static final class Builder<K, V> {
+
+        private long maximumSize = 10_000L;
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+        private Duration failureExpireAfterWrite = Duration.ZERO;
+        private Class[] cachedFailures = new Class[0];
+
+        private Builder() {
+        }
+
+        /**
+         * Maximal number of cached entries. By default 10 000.
+         *
+         * @param maximumSize maximal number of entries.
+         * @return this builder to further chaining.
+         */
+        public Builder<K, V> maximumSize(long maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("Maximum size have to be positive, was: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * Time after which written entry expires. By default 5 minutes. Zero disables caching of values, so only failures
+         * declared by {@link #cacheFailures(Duration, Class[])} are cached.
+         *
+         * @param expireAfterWrite time to live of entries, zero if values are not cached.
+         * @return this builder to further chaining.
+         */
+        public Builder<K, V> expireAfterWrite(@NonNull Duration expireAfterWrite) {
+            if (expireAfterWrite.isNegative()) {
+                throw new IllegalArgumentException("Expiration time cannot be negative, was: " + expireAfterWrite);
+            }
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        /**
+         * Cache given exceptions for given time, usually shorter than for values. By default failures are not cached.
+         * While failure is cached, supplier of its key is not executed and the cached exception is handled instead,
+         * which protects failing dependencies from repeated calls, e.g. for not existing keys.
+         * The same exception instance is thrown to every caller until it expires, possibly from many threads at once.
+         * Handlers must not modify it, e.g. with {@link Throwable#addSuppressed(Throwable)} or
+         * {@link Throwable#initCause(Throwable)}, and its stack trace shows only the call which failed first.
+         * Translate it with a rethrow handler, when callers need an exception of their own.
+         *
+         * @param expireAfterWrite time to live of cached failures.
+         * @param failures         list of cached exceptions, compared by exact class.
+         * @return this builder to further chaining.
+         */
+        public Builder<K, V> cacheFailures(@NonNull Duration expireAfterWrite, @NonNull Class... failures) {
+            if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+                throw new IllegalArgumentException("Expiration time have to be positive, was: " + expireAfterWrite);
+            }
+            this.failureExpireAfterWrite = expireAfterWrite;
+            this.cachedFailures = failures.clone();
+            return this;
+        }
+
+        /**
+         * Creates empty cache.
+         *
+         * @return new {@link CachePolicy}.
+         */
+        public CachePolicy<K, V> build() {
+            return new CachePolicy<>(this);
+        }
+    }
+}
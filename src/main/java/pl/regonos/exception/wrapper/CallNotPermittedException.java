@@ -0,0 +1,21 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Thrown instead of executing code, when {@link CircuitBreaker} does not permit the call.
+ * It is stackless, so rejected calls fail fast also under heavy load.
+ *
+ * @author Igor Maculewicz
+ */
+public class CallNotPermittedException extends LightweightException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates exception for given state of circuit breaker.
+     *
+     * @param state state which rejected the call.
+     */
+    public CallNotPermittedException(CircuitBreaker.State state) {
+        super("Circuit breaker does not permit further calls, state: " + state);
+    }
+}
@@ -0,0 +1,38 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Finds code which called the library. This variant walks a captured stack trace, the multi-release jar replaces it with
+ * a cheaper {@code StackWalker} based one on Java 11.
+ *
+ * @author Igor Maculewicz
+ */
+final class CallSites {
+
+    private static final String LIBRARY_PACKAGE = CallSites.class.getPackage().getName() + ".";
+
+    private CallSites() {
+    }
+
+    /**
+     * Finds the first stack frame outside of this library and of the JDK. Frames of the JDK are skipped, so handlers run
+     * by {@link java.util.concurrent.CompletableFuture} stages are not attributed to its internals.
+     *
+     * @return call site, or null if it cannot be found, e.g. for handlers run by asynchronous stage on a pool thread.
+     */
+    static StackTraceElement find() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (isCallSite(element.getClassName())) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isCallSite(String className) {
+        return !className.startsWith(LIBRARY_PACKAGE)
+                && !className.startsWith("java.")
+                && !className.startsWith("javax.")
+                && !className.startsWith("jdk.")
+                && !className.startsWith("sun.");
+    }
+}
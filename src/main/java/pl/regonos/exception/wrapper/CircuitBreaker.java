@@ -0,0 +1,400 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker which can sit in front of handled code. It records outcomes of the latest calls in a sliding window,
+ * and when failure rate crosses the threshold, calls are rejected with {@link CallNotPermittedException} without
+ * executing the code. After wait duration limited number of probe calls is permitted, which close or open the circuit again.
+ * <pre>{@code
+ * CircuitBreaker breaker = CircuitBreaker.builder()
+ *         .failureRateThreshold(0.5)
+ *         .slidingWindowSize(100)
+ *         .waitDurationInOpenState(Duration.ofSeconds(10))
+ *         .recordExceptions(IOException.class)
+ *         .build();
+ *
+ * String value = ExceptionWrapper.handleWithCircuitBreaker(() -> read(), breaker)
+ *         .andInvokeFor(ex -> fallback(), CallNotPermittedException.class)
+ *         .thenRethrowFor(IllegalStateException::new);
+ * }</pre>
+ * Circuit breaker is lock-free: calls synchronize only on atomic counters, and state is replaced as a whole with a single CAS.
+ * Sliding window of a large enough size is split into stripes with own counters, so concurrent calls do not contend on
+ * a single cache line. Counters of all stripes are combined only when a failure is evaluated.
+ *
+ * @author Igor Maculewicz
+ */
+public final class CircuitBreaker {
+
+    private final double failureRateThreshold;
+    private final int slidingWindowSize;
+    private final int minimumNumberOfCalls;
+    private final long waitDurationInOpenStateNanos;
+    private final int permittedCallsInHalfOpenState;
+    private final Class[] recordedExceptions;
+
+    private final AtomicReference<Phase> phase;
+
+    private CircuitBreaker(Builder builder) {
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slidingWindowSize = builder.slidingWindowSize;
+        this.minimumNumberOfCalls = Math.min(builder.minimumNumberOfCalls, builder.slidingWindowSize);
+        this.waitDurationInOpenStateNanos = builder.waitDurationInOpenState.toNanos();
+        this.permittedCallsInHalfOpenState = builder.permittedCallsInHalfOpenState;
+        this.recordedExceptions = builder.recordedExceptions;
+        this.phase = new AtomicReference<>(closed());
+    }
+
+    /**
+     * Creates builder of circuit breaker.
+     *
+     * @return new {@link Builder} instance.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Current state of the circuit.
+     *
+     * @return current state.
+     */
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * Decorates given supplier, so it is executed only when this circuit breaker permits it.
+     *
+     * @param supplier which contains code that have to be protected.
+     * @param <T>      every object which will be returned from supplier.
+     * @return supplier which throws {@link CallNotPermittedException} when call is not permitted.
+     */
+    public <T> ThrowingSupplier<T> decorate(@NonNull ThrowingSupplier<T> supplier) {
+        return () -> {
+            Phase permitted = acquirePermission();
+            T result;
+            try {
+                result = supplier.get();
+            } catch (Throwable ex) {
+                onResult(permitted, isRecorded(ex));
+                throw ex;
+            }
+            onResult(permitted, false);
+            return result;
+        };
+    }
+
+    /**
+     * Takes permission to execute code.
+     *
+     * @return phase which permitted the call, outcome of the call is recorded into it.
+     * @throws CallNotPermittedException if call is not permitted.
+     */
+    private Phase acquirePermission() {
+        while (true) {
+            Phase current = phase.get();
+
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAtNanos < waitDurationInOpenStateNanos) {
+                        throw new CallNotPermittedException(State.OPEN);
+                    }
+                    phase.compareAndSet(current, halfOpen());
+                    break;
+                case HALF_OPEN:
+                    if (current.permits.get() > 0 && current.permits.getAndDecrement() > 0) {
+                        return current;
+                    }
+                    throw new CallNotPermittedException(State.HALF_OPEN);
+                default:
+                    throw new IllegalStateException("Unknown state: " + current.state);
+            }
+        }
+    }
+
+    /**
+     * Records outcome of permitted call. Outcomes of calls permitted by already replaced phase are ignored.
+     *
+     * @param permitted phase which permitted the call.
+     * @param failure   flag that call failed with recorded exception.
+     */
+    private void onResult(Phase permitted, boolean failure) {
+        if (permitted.state == State.CLOSED) {
+            permitted.window.record(failure);
+            if (!failure) {
+                return;
+            }
+
+            int calls = permitted.window.calls();
+            if (calls >= minimumNumberOfCalls && permitted.window.failures() >= failureRateThreshold * calls) {
+                phase.compareAndSet(permitted, open());
+            }
+        } else if (failure) {
+            phase.compareAndSet(permitted, open());
+        } else if (permitted.successes.incrementAndGet() == permittedCallsInHalfOpenState) {
+            phase.compareAndSet(permitted, closed());
+        }
+    }
+
+    /**
+     * Check that exception is counted as failure. An empty list of recorded exceptions counts all of them.
+     */
+    private boolean isRecorded(Throwable error) {
+        if (recordedExceptions.length == 0) {
+            return true;
+        }
+        for (Class cl : recordedExceptions) {
+            if (cl.isInstance(error)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Phase closed() {
+        return new Phase(State.CLOSED, 0L, new Window(slidingWindowSize), 0);
+    }
+
+    private Phase open() {
+        return new Phase(State.OPEN, System.nanoTime(), null, 0);
+    }
+
+    private Phase halfOpen() {
+        return new Phase(State.HALF_OPEN, 0L, null, permittedCallsInHalfOpenState);
+    }
+
+    /**
+     * States of the circuit.
+     */
+    public enum State {
+        /**
+         * Calls are permitted and their outcomes are recorded.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected until wait duration passes.
+         */
+        OPEN,
+        /**
+         * Limited number of probe calls is permitted. Any failure opens the circuit again, otherwise it is closed.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * Immutable state of the circuit together with its counters. Transition replaces the whole phase.
+     */
+    private static final class Phase {
+
+        private final State state;
+        private final long openedAtNanos;
+        private final Window window;
+        private final AtomicInteger permits;
+        private final AtomicInteger successes = new AtomicInteger();
+
+        private Phase(State state, long openedAtNanos, Window window, int permits) {
+            this.state = state;
+            this.openedAtNanos = openedAtNanos;
+            this.window = window;
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+
+    /**
+     * Lock-free ring buffer of outcomes of the latest calls, split into stripes. Every stripe owns a part of the buffer
+     * with its own cursor and failure counter, and every call is recorded into a random stripe, so the window holds
+     * approximately the latest calls, and all of them only when every stripe is full.
+     */
+    private static final class Window {
+
+        private static final int EMPTY = 0;
+        private static final int SUCCESS = 1;
+        private static final int FAILURE = 2;
+
+        /**
+         * Smallest part of the buffer owned by a stripe, smaller windows are not striped.
+         */
+        private static final int MIN_STRIPE_SIZE = 16;
+        /**
+         * Distance between counters of neighbouring stripes, so they never share a cache line.
+         */
+        private static final int PADDING = 16;
+        private static final int CURSOR = 0;
+        private static final int FAILURES = 1;
+
+        private final AtomicIntegerArray outcomes;
+        private final AtomicLongArray counters;
+        private final int stripes;
+        /**
+         * Start of the part of the buffer owned by every stripe, and the end of the last one.
+         */
+        private final int[] offsets;
+
+        private Window(int size) {
+            int processors = Runtime.getRuntime().availableProcessors();
+            int maxStripes = Math.max(1, Math.min(size / MIN_STRIPE_SIZE, processors * 2));
+            this.stripes = Integer.highestOneBit(maxStripes);
+            this.outcomes = new AtomicIntegerArray(size);
+            this.counters = new AtomicLongArray(stripes * PADDING);
+            this.offsets = new int[stripes + 1];
+            for (int i = 0; i <= stripes; i++) {
+                offsets[i] = (int) ((long) size * i / stripes);
+            }
+        }
+
+        /**
+         * Records outcome in place of the oldest one of a random stripe.
+         *
+         * @param failure flag that call failed.
+         */
+        private void record(boolean failure) {
+            int stripe = stripes == 1 ? 0 : ThreadLocalRandom.current().nextInt(stripes);
+            int from = offsets[stripe];
+            int slot = from + (int) (counters.getAndIncrement(stripe * PADDING + CURSOR) % (offsets[stripe + 1] - from));
+            int previous = outcomes.getAndSet(slot, failure ? FAILURE : SUCCESS);
+
+            if (failure && previous != FAILURE) {
+                counters.incrementAndGet(stripe * PADDING + FAILURES);
+            } else if (!failure && previous == FAILURE) {
+                counters.decrementAndGet(stripe * PADDING + FAILURES);
+            }
+        }
+
+        /**
+         * Number of failures in window.
+         */
+        private int failures() {
+            long failures = 0L;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                failures += counters.get(stripe * PADDING + FAILURES);
+            }
+            return (int) failures;
+        }
+
+        /**
+         * Number of recorded calls, up to size of window.
+         */
+        private int calls() {
+            long calls = 0L;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                calls += Math.min(counters.get(stripe * PADDING + CURSOR), offsets[stripe + 1] - offsets[stripe]);
+            }
+            return (int) calls;
+        }
+    }
+
+    /**
+     * Builder of {@link CircuitBreaker}.
+     */
+    public static final class Builder {
+
+        private double failureRateThreshold = 0.5;
+        private int slidingWindowSize = 100;
+        private int minimumNumberOfCalls = 100;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(60);
+        private int permittedCallsInHalfOpenState = 10;
+        private Class[] recordedExceptions = new Class[0];
+
+        private Builder() {
+        }
+
+        /**
+         * Failure rate, from range (0, 1], which opens the circuit. By default 0.5.
+         *
+         * @param failureRateThreshold failure rate threshold.
+         * @return this builder to further chaining.
+         */
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            if (!(failureRateThreshold > 0.0 && failureRateThreshold <= 1.0)) {
+                throw new IllegalArgumentException("Failure rate threshold have to be in range (0, 1], was: " + failureRateThreshold);
+            }
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Number of latest calls used to compute failure rate. By default 100.
+         *
+         * @param slidingWindowSize size of sliding window.
+         * @return this builder to further chaining.
+         */
+        public Builder slidingWindowSize(int slidingWindowSize) {
+            this.slidingWindowSize = checkPositive(slidingWindowSize, "Sliding window size");
+            return this;
+        }
+
+        /**
+         * Minimal number of recorded calls before failure rate is computed, limited by window size. By default 100.
+         *
+         * @param minimumNumberOfCalls minimal number of calls.
+         * @return this builder to further chaining.
+         */
+        public Builder minimumNumberOfCalls(int minimumNumberOfCalls) {
+            this.minimumNumberOfCalls = checkPositive(minimumNumberOfCalls, "Minimum number of calls");
+            return this;
+        }
+
+        /**
+         * Time for which open circuit rejects all calls. By default 60 seconds.
+         *
+         * @param waitDurationInOpenState wait duration.
+         * @return this builder to further chaining.
+         */
+        public Builder waitDurationInOpenState(@NonNull Duration waitDurationInOpenState) {
+            if (waitDurationInOpenState.isNegative()) {
+                throw new IllegalArgumentException("Wait duration cannot be negative, was: " + waitDurationInOpenState);
+            }
+            this.waitDurationInOpenState = waitDurationInOpenState;
+            return this;
+        }
+
+        /**
+         * Number of probe calls permitted in half-open state. By default 10.
+         *
+         * @param permittedCallsInHalfOpenState number of probe calls.
+         * @return this builder to further chaining.
+         */
+        public Builder permittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+            this.permittedCallsInHalfOpenState = checkPositive(permittedCallsInHalfOpenState, "Permitted calls in half-open state");
+            return this;
+        }
+
+        /**
+         * Exceptions counted as failures, including their children. Other exceptions are counted as successful calls.
+         * If empty, then all exceptions are counted as failures, which is the default.
+         *
+         * @param recordedExceptions list of recorded exceptions.
+         * @return this builder to further chaining.
+         */
+        public Builder recordExceptions(@NonNull Class... recordedExceptions) {
+            this.recordedExceptions = recordedExceptions.clone();
+            return this;
+        }
+
+        /**
+         * Creates circuit breaker, which starts closed.
+         *
+         * @return new {@link CircuitBreaker}.
+         */
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+
+        private static int checkPositive(int value, String name) {
+            if (value < 1) {
+                throw new IllegalArgumentException(name + " have to be positive, was: " + value);
+            }
+            return value;
+        }
+    }
+}
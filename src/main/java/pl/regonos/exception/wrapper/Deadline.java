@@ -0,0 +1,110 @@
+package pl.regonos.exception.wrapper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Deadline of a supplier executed in the calling thread. When the deadline passes, the calling thread is interrupted
+ * by {@link WheelTimer}, and failure or result of the supplier is replaced with {@link TimeoutException}.
+ * Calling thread and timer thread agree on the outcome with a single CAS, so an interrupt never leaks out of the supplier.
+ * Interrupt status of the calling thread from before the supplier started is preserved.
+ *
+ * @author Igor Maculewicz
+ */
+final class Deadline extends WheelTimer.Timeout {
+
+    private static final int RUNNING = 0;
+    private static final int COMPLETED = 1;
+    private static final int EXPIRING = 2;
+    private static final int EXPIRED = 3;
+
+    private static final AtomicIntegerFieldUpdater<Deadline> STATE = AtomicIntegerFieldUpdater.newUpdater(Deadline.class, "state");
+
+    private final Thread thread;
+    private final boolean interruptedOnEntry;
+    private volatile int state;
+
+    private Deadline(Thread thread, long deadlineNanos) {
+        super(deadlineNanos);
+        this.thread = thread;
+        this.interruptedOnEntry = thread.isInterrupted();
+    }
+
+    /**
+     * Decorates given supplier, so its every execution is bounded by given timeout.
+     *
+     * @param supplier which contains code that have to be bounded.
+     * @param timeout  maximal time of execution.
+     * @param <T>      every object which will be returned from supplier.
+     * @return supplier which throws {@link TimeoutException} when timeout passes.
+     */
+    static <T> ThrowingSupplier<T> decorate(ThrowingSupplier<T> supplier, Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout have to be positive, was: " + timeout);
+        }
+        long timeoutNanos = timeout.toNanos();
+
+        return () -> {
+            Deadline deadline = new Deadline(Thread.currentThread(), System.nanoTime() + timeoutNanos);
+            WheelTimer.shared().schedule(deadline);
+
+            T result;
+            try {
+                result = supplier.get();
+            } catch (Throwable ex) {
+                if (deadline.complete()) {
+                    throw ex;
+                }
+                throw timeoutException(timeout, ex);
+            }
+
+            if (deadline.complete()) {
+                return result;
+            }
+            throw timeoutException(timeout, null);
+        };
+    }
+
+    @Override
+    boolean isCancelled() {
+        return state != RUNNING;
+    }
+
+    @Override
+    void expire() {
+        if (STATE.compareAndSet(this, RUNNING, EXPIRING)) {
+            thread.interrupt();
+            state = EXPIRED;
+        }
+    }
+
+    /**
+     * Marks supplier as completed. If the deadline already passed, waits for the interrupt and clears it, unless the
+     * calling thread was already interrupted before the supplier started.
+     *
+     * @return flag that supplier completed before the deadline.
+     */
+    private boolean complete() {
+        if (STATE.compareAndSet(this, RUNNING, COMPLETED)) {
+            return true;
+        }
+
+        while (state != EXPIRED) {
+            Thread.yield();
+        }
+        Thread.interrupted();
+        if (interruptedOnEntry) {
+            thread.interrupt();
+        }
+        return false;
+    }
+
+    private static TimeoutException timeoutException(Duration timeout, Throwable cause) {
+        TimeoutException exception = new TimeoutException("Supplier did not complete within " + timeout);
+        if (cause != null) {
+            exception.initCause(cause);
+        }
+        return exception;
+    }
+}
@@ -0,0 +1,259 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * {@link ExceptionWrapper} specialized for double values, so handled value is never boxed.
+ * If exception is handled without rethrow, finalizer methods return 0.0.
+ * <pre>{@code
+ * double value = DoubleExceptionWrapper.handle(() -> Double.parseDouble(text))
+ *         .thenRethrowFor(IllegalStateException::new);
+ * }</pre>
+ *
+ * @author Igor Maculewicz
+ */
+public class DoubleExceptionWrapper extends AbstractExceptionWrapper<DoubleExceptionWrapper> {
+
+    private final ThrowingDoubleSupplier supplier;
+    private double result;
+
+    /**
+     * Private constructor because of declared static one.
+     *
+     * @param supplier which contains code that have to be handled.
+     */
+    private DoubleExceptionWrapper(@NonNull ThrowingDoubleSupplier supplier, boolean rethrowUnsafe) {
+        super(rethrowUnsafe);
+        this.supplier = supplier;
+
+        execute();
+    }
+
+    /**
+     * Main handler method which taking a supplier with code to handle.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @return instance of created {@link DoubleExceptionWrapper}.
+     */
+    public static DoubleExceptionWrapper handle(@NonNull ThrowingDoubleSupplier supplier) {
+        return new DoubleExceptionWrapper(supplier, false);
+    }
+
+    /**
+     * Method that will replace exception with a value returned by given method, only when one of exception on given list
+     * will be thrown while execution of supplier. After recovery the rest of chain behaves as if supplier returned that value.
+     *
+     * @param recoverMethod       method which will return a value instead of exception.
+     * @param expectingExceptions list of expected exceptions.
+     * @return instance of wrapper to further chaining.
+     */
+    public DoubleExceptionWrapper andRecoverFor(@NonNull ToDoubleFunction<Throwable> recoverMethod, @NonNull Class... expectingExceptions) {
+
+        Throwable recovered = recoverFor(expectingExceptions);
+        if (Objects.nonNull(recovered)) {
+            result = recoverMethod.applyAsDouble(recovered);
+        }
+
+        return this;
+    }
+
+    /**
+     * Method that will replace exception with a value returned by given method, for all children exceptions of given exception.
+     *
+     * @param recoverMethod      method which will return a value instead of exception.
+     * @param expectingException parent exception.
+     * @return instance of wrapper to further chaining.
+     */
+    public DoubleExceptionWrapper andRecoverForParent(@NonNull ToDoubleFunction<Throwable> recoverMethod, @NonNull Class expectingException) {
+
+        Throwable recovered = recoverForParent(expectingException);
+        if (Objects.nonNull(recovered)) {
+            result = recoverMethod.applyAsDouble(recovered);
+        }
+
+        return this;
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, only when one of exception on given list will be thrown while execution of supplier.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @return returns double value if no exception thrown in supplier.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public <X extends Throwable> double thenRethrowFor(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
+
+        finishRethrowFor(rethrowMethod, expectingExceptions);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, for all children exceptions of given exception.
+     *
+     * @param rethrowMethod      method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return returns double value if no exception thrown in supplier.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public <X extends Throwable> double thenRethrowForParent(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class expectingException) throws X {
+
+        finishRethrowForParent(rethrowMethod, expectingException);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, only if it wasn't handled before in chain.
+     *
+     * @param exceptionSupplier function that returns an exception which will be used in rethrow.
+     * @param <X>               any {@link Throwable}.
+     * @return returns double value if no exception thrown in supplier.
+     * @throws X any {@link Throwable}.
+     */
+    public <X extends Throwable> double thenRethrowForUnhandled(@NonNull Function<Throwable, X> exceptionSupplier) throws X {
+
+        finishRethrowForUnhandled(exceptionSupplier);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will rethrow to given exception, when thrown exception or any of its causes is one of exception on given list.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @return returns double value if no exception thrown in supplier.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public <X extends Throwable> double thenRethrowForCause(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
+
+        finishRethrowForCause(rethrowMethod, expectingExceptions);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will invoke given method only when one of given exception list will be thrown while execution of supplier.
+     *
+     * @param errorConsumer       method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return returns double value if no exception thrown in supplier.
+     */
+    public double thenInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+
+        finishInvokeFor(errorConsumer, expectingExceptions);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will invoke given method, for all children exceptions of given exception.
+     *
+     * @param errorConsumer      method which will be invoked if one of exception will be thrown in supplier.
+     * @param expectingException parent exception.
+     * @return returns double value if no exception thrown in supplier.
+     */
+    public double thenInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
+
+        finishInvokeForParent(errorConsumer, expectingException);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will invoke given method, when thrown exception or any of its causes is one of exception on given list.
+     *
+     * @param errorConsumer       method which will be invoked, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
+     * @return returns double value if no exception thrown in supplier.
+     */
+    public double thenInvokeForCause(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+
+        finishInvokeForCause(errorConsumer, expectingExceptions);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will invoke given method, only if it wasn't handled before in chain.
+     *
+     * @param errorConsumer method which will be invoked if one of exception will be thrown in supplier.
+     * @return returns double value if no exception thrown in supplier.
+     */
+    public double thenInvokeForUnhandled(@NonNull Consumer<Throwable> errorConsumer) {
+
+        finishInvokeForUnhandled(errorConsumer);
+
+        return result;
+    }
+
+    /**
+     * Finalizer method that will return a value returned by given method, when one of exception on given list will be thrown while execution of supplier.
+     *
+     * @param recoverMethod       method which will return a value instead of exception.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return returns double value if no exception thrown in supplier, otherwise recovered value.
+     */
+    public double thenRecoverFor(@NonNull ToDoubleFunction<Throwable> recoverMethod, @NonNull Class... expectingExceptions) {
+
+        Throwable recovered = finishRecoverFor(expectingExceptions);
+
+        return Objects.nonNull(recovered) ? recoverMethod.applyAsDouble(recovered) : result;
+    }
+
+    /**
+     * Finalizer method that will return a value returned by given method, for all children exceptions of given exception.
+     *
+     * @param recoverMethod      method which will return a value instead of exception.
+     * @param expectingException parent exception.
+     * @return returns double value if no exception thrown in supplier, otherwise recovered value.
+     */
+    public double thenRecoverForParent(@NonNull ToDoubleFunction<Throwable> recoverMethod, @NonNull Class expectingException) {
+
+        Throwable recovered = finishRecoverForParent(expectingException);
+
+        return Objects.nonNull(recovered) ? recoverMethod.applyAsDouble(recovered) : result;
+    }
+
+    /**
+     * Finalizer method that will return a value returned by given method, only if exception wasn't handled before in chain.
+     *
+     * @param recoverMethod method which will return a value instead of exception.
+     * @return returns double value if no exception thrown in supplier, otherwise recovered value.
+     */
+    public double thenRecoverForUnhandled(@NonNull ToDoubleFunction<Throwable> recoverMethod) {
+
+        Throwable recovered = finishRecoverForUnhandled();
+
+        return Objects.nonNull(recovered) ? recoverMethod.applyAsDouble(recovered) : result;
+    }
+
+    @Override
+    void rerun() {
+        this.error = null;
+        execute();
+    }
+
+    /**
+     * Executes supplier and stores its result or exception.
+     */
+    private void execute() {
+        Object execution = FlightEvents.beginExecution();
+        try {
+            this.result = supplier.getAsDouble();
+        } catch (Throwable ex) {
+            this.error = ex;
+            FlightEvents.exceptionCaptured(ex);
+        }
+        FlightEvents.endExecution(execution, error);
+    }
+}
@@ -0,0 +1,189 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports chains which handle the same exception more than once. Every exception class is logged once, with the call site
+ * of its first occurrence. Later occurrences, from any call site, are only counted and logged as periodic summaries, so
+ * a misconfigured chain on a hot path neither floods the logs nor walks the stack on every call. Summaries are logged
+ * by the shared timer once per interval, and on JVM shutdown.
+ * In production the check can be disabled completely with {@link #setEnabled(boolean)}.
+ *
+ * @author Igor Maculewicz
+ */
+public final class DuplicateHandlerReporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExceptionWrapper.class);
+
+    /**
+     * Call site of handlers run by an asynchronous stage, which stack holds no frame of the calling code.
+     */
+    private static final String UNKNOWN_CALL_SITE = "unknown (asynchronous stage)";
+
+    private static volatile boolean enabled = true;
+    private static volatile long summaryIntervalNanos = Duration.ofMinutes(1).toNanos();
+
+    /**
+     * Occurrences per exception class, with the call site of the first one.
+     */
+    private static final ConcurrentMap<Class<?>, Occurrences> OCCURRENCES = new ConcurrentHashMap<>();
+    private static final AtomicReference<SummaryTimeout> SCHEDULED_SUMMARY = new AtomicReference<>();
+    private static final AtomicLong LAST_SUMMARY = new AtomicLong(System.nanoTime());
+
+    private DuplicateHandlerReporter() {
+    }
+
+    /**
+     * Enables or disables checking of duplicated handlers. Disabled check costs nothing.
+     *
+     * @param enabled flag that duplicated handlers are checked.
+     */
+    public static void setEnabled(boolean enabled) {
+        DuplicateHandlerReporter.enabled = enabled;
+    }
+
+    /**
+     * Check that duplicated handlers are checked.
+     *
+     * @return flag that duplicated handlers are checked.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets how often summaries of repeated occurrences are logged, one minute by default.
+     * Summary already scheduled is rescheduled with the new interval.
+     *
+     * @param interval interval between summaries.
+     */
+    public static void setSummaryInterval(@NonNull Duration interval) {
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Summary interval have to be positive, was: " + interval);
+        }
+        summaryIntervalNanos = interval.toNanos();
+
+        if (Objects.nonNull(SCHEDULED_SUMMARY.getAndSet(null))) {
+            scheduleSummary();
+        }
+    }
+
+    /**
+     * Logs summary of occurrences counted since the last summary, without waiting for the summary interval.
+     */
+    public static void flush() {
+        long now = System.nanoTime();
+        long last = LAST_SUMMARY.getAndSet(now);
+
+        for (Map.Entry<Class<?>, Occurrences> entry : OCCURRENCES.entrySet()) {
+            long count = entry.getValue().count.sumThenReset();
+            if (count > 0) {
+                LOGGER.warn("You handled exception: {}, more than once {} times in last {} ms. First call site: {}",
+                        entry.getKey().getName(), count, (now - last) / 1_000_000, entry.getValue().firstCallSite);
+            }
+        }
+    }
+
+    /**
+     * Reports that given exception is handled more than once. The first occurrence of the exception class is logged right
+     * away with its call site, only the later ones are counted into summaries. Stack is walked only for the first
+     * occurrence, so the later ones cost a map lookup and a counter increment.
+     *
+     * @param exceptionClass exception handled more than once.
+     */
+    static void report(Class<?> exceptionClass) {
+        Occurrences occurrences = OCCURRENCES.get(exceptionClass);
+        if (Objects.isNull(occurrences)) {
+            StackTraceElement found = CallSites.find();
+            Object callSite = Objects.nonNull(found) ? found : UNKNOWN_CALL_SITE;
+
+            occurrences = OCCURRENCES.putIfAbsent(exceptionClass, new Occurrences(callSite));
+            if (Objects.isNull(occurrences)) {
+                LOGGER.warn("You handled exception: {}, more than once! Call site: {}. Further occurrences will be summarized.",
+                        exceptionClass.getName(), callSite);
+                return;
+            }
+        }
+
+        occurrences.count.increment();
+        scheduleSummary();
+    }
+
+    /**
+     * Schedules summary of counted occurrences, unless one is already scheduled. Summaries are not scheduled while
+     * nothing is counted, so a correct application never wakes the timer for them.
+     */
+    private static void scheduleSummary() {
+        if (Objects.nonNull(SCHEDULED_SUMMARY.get())) {
+            return;
+        }
+
+        SummaryTimeout timeout = new SummaryTimeout(LAST_SUMMARY.get() + summaryIntervalNanos);
+        if (SCHEDULED_SUMMARY.compareAndSet(null, timeout)) {
+            ShutdownSummary.register();
+            WheelTimer.shared().schedule(timeout);
+        }
+    }
+
+    /**
+     * Occurrences of single exception class since the last summary.
+     */
+    private static final class Occurrences {
+
+        private final Object firstCallSite;
+        private final LongAdder count = new LongAdder();
+
+        private Occurrences(Object firstCallSite) {
+            this.firstCallSite = firstCallSite;
+        }
+    }
+
+    /**
+     * Timeout of the next summary, cancelled when it is replaced. The timer thread must not block, so the summary is
+     * logged by the common pool.
+     */
+    private static final class SummaryTimeout extends WheelTimer.Timeout {
+
+        private SummaryTimeout(long deadlineNanos) {
+            super(deadlineNanos);
+        }
+
+        @Override
+        boolean isCancelled() {
+            return SCHEDULED_SUMMARY.get() != this;
+        }
+
+        @Override
+        void expire() {
+            if (SCHEDULED_SUMMARY.compareAndSet(this, null)) {
+                ForkJoinPool.commonPool().execute(DuplicateHandlerReporter::flush);
+            }
+        }
+    }
+
+    /**
+     * Logs the last summary on JVM shutdown, registered with the first counted occurrence.
+     */
+    private static final class ShutdownSummary {
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(DuplicateHandlerReporter::flush, "exception-wrapper-duplicates"));
+        }
+
+        private static void register() {
+            //Registration is done once, by class initialization
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional, lock-free counters of matched handlers, per exception class and per {@link HandlerType}.
+ * Metrics are disabled by default, then recording costs a single volatile read on the failure path.
+ * <pre>{@code
+ * ExceptionMetrics.enable();
+ * ...
+ * Map<Class<?>, Map<HandlerType, Long>> counts = ExceptionMetrics.snapshot();
+ * }</pre>
+ *
+ * @author Igor Maculewicz
+ */
+public final class ExceptionMetrics {
+
+    private static final HandlerType[] HANDLER_TYPES = HandlerType.values();
+
+    private static volatile boolean enabled;
+
+    /**
+     * Classes which have counters, needed to iterate them in snapshot. Weak, so counters do not prevent class unloading.
+     */
+    private static final Set<Class<?>> COUNTED_CLASSES = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private static final ClassValue<LongAdder[]> COUNTERS = new ClassValue<LongAdder[]>() {
+        @Override
+        protected LongAdder[] computeValue(Class<?> errorClass) {
+            LongAdder[] counters = new LongAdder[HANDLER_TYPES.length];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new LongAdder();
+            }
+            COUNTED_CLASSES.add(errorClass);
+            return counters;
+        }
+    };
+
+    private ExceptionMetrics() {
+    }
+
+    /**
+     * Starts counting matched handlers.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Stops counting matched handlers, already counted values are kept.
+     */
+    public static void disable() {
+        enabled = false;
+    }
+
+    /**
+     * Check that metrics are enabled.
+     *
+     * @return flag that matched handlers are counted.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Counts of matched handlers. Counters are read without stopping writers, so snapshot taken under load is not atomic.
+     *
+     * @return unmodifiable map of exception class to non-zero counts per handler type.
+     */
+    public static Map<Class<?>, Map<HandlerType, Long>> snapshot() {
+        Map<Class<?>, Map<HandlerType, Long>> snapshot = new LinkedHashMap<>();
+
+        for (Class<?> errorClass : countedClasses()) {
+            LongAdder[] counters = COUNTERS.get(errorClass);
+            Map<HandlerType, Long> counts = new EnumMap<>(HandlerType.class);
+
+            for (HandlerType type : HANDLER_TYPES) {
+                long count = counters[type.ordinal()].sum();
+                if (count > 0) {
+                    counts.put(type, count);
+                }
+            }
+
+            if (!counts.isEmpty()) {
+                snapshot.put(errorClass, Collections.unmodifiableMap(counts));
+            }
+        }
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public static void reset() {
+        for (Class<?> errorClass : countedClasses()) {
+            for (LongAdder counter : COUNTERS.get(errorClass)) {
+                counter.reset();
+            }
+        }
+    }
+
+    /**
+     * Counts match of given handler type, if metrics are enabled.
+     *
+     * @param errorClass class of matched exception.
+     * @param type       type of matched handler.
+     */
+    static void record(Class<?> errorClass, HandlerType type) {
+        if (enabled) {
+            COUNTERS.get(errorClass)[type.ordinal()].increment();
+        }
+    }
+
+    private static List<Class<?>> countedClasses() {
+        synchronized (COUNTED_CLASSES) {
+            return new ArrayList<>(COUNTED_CLASSES);
+        }
+    }
+}
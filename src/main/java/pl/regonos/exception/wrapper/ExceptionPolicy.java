@@ -0,0 +1,504 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Precompiled, reusable chain of exception handlers. It uses the same vocabulary and semantics as {@link ExceptionWrapper},
+ * but the chain is built only once and then can be executed many times, from many threads.
+ * <pre>{@code
+ * ExceptionPolicy<IOException> policy = ExceptionPolicy.builder(IOException.class)
+ *         .andRethrowFor(IOException::new, TimeoutException.class)
+ *         .andInvokeForParent(logger::error, RuntimeException.class)
+ *         .thenRethrowForUnhandled(IllegalStateException::new);
+ *
+ * String value = policy.execute(() -> read());
+ * }</pre>
+ *
+ * @param <X> checked exception which can be thrown by rethrow methods of the policy.
+ * @author Igor Maculewicz
+ */
+public final class ExceptionPolicy<X extends Throwable> {
+
+    private final HandlerStage[] stages;
+    private final boolean rethrowUnsafe;
+    /**
+     * Retry handler done before the chain, or null if policy does not retry.
+     */
+    private final Retry retry;
+    /**
+     * Handlers resolved per thrown exception class, so after warm-up dispatch does not walk the chain nor the class hierarchy.
+     */
+    private final ClassValue<HandlerResolution> resolutions = new ClassValue<HandlerResolution>() {
+        @Override
+        protected HandlerResolution computeValue(Class<?> errorClass) {
+            return HandlerResolution.resolve(stages, errorClass, rethrowUnsafe);
+        }
+    };
+
+    private ExceptionPolicy(List<HandlerStage> stages, boolean rethrowUnsafe, Retry retry) {
+        this.stages = stages.toArray(new HandlerStage[0]);
+        this.rethrowUnsafe = rethrowUnsafe;
+        this.retry = retry;
+    }
+
+    /**
+     * Creates builder of policy which rethrows only unchecked exceptions.
+     *
+     * @return new {@link Builder} instance.
+     */
+    public static Builder<RuntimeException> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Creates builder of policy which can rethrow given checked exception.
+     *
+     * @param declaredException checked exception declared by {@link #execute(ThrowingSupplier)}.
+     * @param <X>               checked exception type.
+     * @return new {@link Builder} instance.
+     */
+    public static <X extends Throwable> Builder<X> builder(@NonNull Class<X> declaredException) {
+        return new Builder<>();
+    }
+
+    /**
+     * Executes given supplier and handles its exception with this policy.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @param <T>      every object which will be returned from supplier.
+     * @return value returned from supplier, or null if exception was handled without rethrow.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(@NonNull ThrowingSupplier<T> supplier) throws X {
+        Object execution = FlightEvents.beginExecution();
+        long delay = 0L;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = supplier.get();
+                FlightEvents.endExecution(execution, null);
+                return result;
+            } catch (Throwable ex) {
+                delay = retryDelay(ex, attempt, delay);
+                if (delay < 0) {
+                    FlightEvents.endExecution(execution, ex);
+                    return (T) handleError(ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes given supplier of int values and handles its exception with this policy, without boxing the value.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @return value returned from supplier, or 0 if exception was handled without rethrow.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public int executeAsInt(@NonNull ThrowingIntSupplier supplier) throws X {
+        Object execution = FlightEvents.beginExecution();
+        long delay = 0L;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                int result = supplier.getAsInt();
+                FlightEvents.endExecution(execution, null);
+                return result;
+            } catch (Throwable ex) {
+                delay = retryDelay(ex, attempt, delay);
+                if (delay < 0) {
+                    FlightEvents.endExecution(execution, ex);
+                    handleError(ex);
+                    return 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes given supplier of long values and handles its exception with this policy, without boxing the value.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @return value returned from supplier, or 0L if exception was handled without rethrow.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public long executeAsLong(@NonNull ThrowingLongSupplier supplier) throws X {
+        Object execution = FlightEvents.beginExecution();
+        long delay = 0L;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                long result = supplier.getAsLong();
+                FlightEvents.endExecution(execution, null);
+                return result;
+            } catch (Throwable ex) {
+                delay = retryDelay(ex, attempt, delay);
+                if (delay < 0) {
+                    FlightEvents.endExecution(execution, ex);
+                    handleError(ex);
+                    return 0L;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes given supplier of double values and handles its exception with this policy, without boxing the value.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @return value returned from supplier, or 0.0 if exception was handled without rethrow.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public double executeAsDouble(@NonNull ThrowingDoubleSupplier supplier) throws X {
+        Object execution = FlightEvents.beginExecution();
+        long delay = 0L;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                double result = supplier.getAsDouble();
+                FlightEvents.endExecution(execution, null);
+                return result;
+            } catch (Throwable ex) {
+                delay = retryDelay(ex, attempt, delay);
+                if (delay < 0) {
+                    FlightEvents.endExecution(execution, ex);
+                    handleError(ex);
+                    return 0.0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes given supplier of boolean values and handles its exception with this policy, without boxing the value.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @return value returned from supplier, or false if exception was handled without rethrow.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public boolean executeAsBoolean(@NonNull ThrowingBooleanSupplier supplier) throws X {
+        Object execution = FlightEvents.beginExecution();
+        long delay = 0L;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                boolean result = supplier.getAsBoolean();
+                FlightEvents.endExecution(execution, null);
+                return result;
+            } catch (Throwable ex) {
+                delay = retryDelay(ex, attempt, delay);
+                if (delay < 0) {
+                    FlightEvents.endExecution(execution, ex);
+                    handleError(ex);
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits before retry of failed attempt, if it have to be retried.
+     *
+     * @param error              exception thrown by failed attempt.
+     * @param attempt            number of failed attempt, starting from 1.
+     * @param previousDelayNanos delay before previous retry.
+     * @return delay waited before the retry, or -1 if exception have to be handled by the chain.
+     */
+    private long retryDelay(Throwable error, int attempt, long previousDelayNanos) {
+        return Objects.isNull(retry) ? -1L : retry.pause(error, attempt, previousDelayNanos);
+    }
+
+    /**
+     * Retries failed call as long as retry of this policy allows it, then runs the compiled chain for the last exception.
+     * Used by callers which execute the first attempt themselves.
+     *
+     * @param error exception thrown by the first attempt.
+     * @param rerun call which is executed again on retry.
+     * @return value returned by retried call, or value which have to be returned instead of supplier result.
+     * @throws X {@link Throwable} which will be thrown by matched handler.
+     */
+    Object handleError(Throwable error, ThrowingSupplier<?> rerun) throws X {
+        long delay = 0L;
+        for (int attempt = 1; ; attempt++) {
+            delay = retryDelay(error, attempt, delay);
+            if (delay < 0) {
+                return handleError(error);
+            }
+            try {
+                return rerun.get();
+            } catch (Throwable ex) {
+                error = ex;
+            }
+        }
+    }
+
+    /**
+     * Runs the compiled chain for given exception.
+     *
+     * @param error exception thrown by supplier.
+     * @return value which have to be returned instead of supplier result.
+     * @throws X {@link Throwable} which will be thrown by matched handler.
+     */
+    @SuppressWarnings("unchecked")
+    Object handleError(Throwable error) throws X {
+        HandlerResolution resolution = resolutions.get(error.getClass());
+
+        FlightEvents.exceptionCaptured(error);
+
+        for (HandlerStage stage : resolution.getMatchedStages()) {
+            ExceptionMetrics.record(error.getClass(), stage.getType());
+            FlightEvents.handlerMatched(error.getClass(), stage.getType());
+
+            switch (stage.getType().getAction()) {
+                case THROW:
+                    FlightEvents.exceptionRethrown(error, error, stage.getType());
+                    throw escapeRuntimeException(error);
+                case RETHROW:
+                    Throwable rethrown = stage.getRethrowMethod().apply(error);
+                    FlightEvents.exceptionRethrown(error, rethrown, stage.getType());
+                    throw (X) rethrown;
+                case INVOKE:
+                    stage.getErrorConsumer().accept(error);
+            }
+        }
+
+        if (resolution.isEscape()) {
+            throw escapeRuntimeException(error);
+        }
+
+        return null;
+    }
+
+    /**
+     * Retries failed call and runs the compiled chain like {@link #handleError(Throwable, ThrowingSupplier)},
+     * throwing checked exceptions as unchecked ones.
+     * Used by adapters to {@link java.util.function} types, which cannot declare checked exceptions.
+     *
+     * @param error exception thrown by the first attempt.
+     * @param rerun call which is executed again on retry.
+     * @return value returned by retried call, or value which have to be returned instead of supplier result.
+     */
+    @SuppressWarnings("unchecked")
+    Object handleErrorUnchecked(Throwable error, ThrowingSupplier<?> rerun) {
+        return ((ExceptionPolicy<RuntimeException>) this).handleError(error, rerun);
+    }
+
+    /**
+     * Cast a CheckedException as an unchecked one.
+     *
+     * @param throwable to cast
+     * @param <E>       the type of the Throwable
+     * @return this method will never return a Throwable instance, it will just throw it.
+     * @throws E the throwable as an unchecked throwable
+     */
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException escapeRuntimeException(Throwable throwable) throws E {
+        throw (E) throwable;
+    }
+
+    /**
+     * Builder of {@link ExceptionPolicy}. Chain is closed and compiled by any of then* methods.
+     * Builder itself is not thread safe, but compiled policy is.
+     *
+     * @param <X> checked exception which can be thrown by rethrow methods of the policy.
+     */
+    public static final class Builder<X extends Throwable> {
+
+        private final List<HandlerStage> stages = new ArrayList<>();
+        private Set<Class> usedExceptions = Collections.emptySet();
+        private boolean rethrowUnsafe;
+        private int maxAttempts = 1;
+        private Backoff backoff = Backoff.none();
+        private RetryBudget retryBudget = RetryBudget.unlimited();
+        private Class[] retriedExceptions;
+
+        private Builder() {
+        }
+
+        /**
+         * If expected exception is thrown, propagate it higher.
+         *
+         * @param expectingException exception which will be propagated.
+         * @return this builder to further chaining.
+         */
+        public Builder<X> andThrowFor(@NonNull Class<? extends X> expectingException) {
+            return add(HandlerType.AND_THROW_FOR, new Class[]{expectingException}, null, null);
+        }
+
+        /**
+         * Rethrow to given exception, only when one of exception on given list is thrown.
+         *
+         * @param rethrowMethod       method which will rethrow to given exception.
+         * @param expectingExceptions list of expected exceptions.
+         * @return this builder to further chaining.
+         */
+        public Builder<X> andRethrowFor(@NonNull Function<Throwable, ? extends X> rethrowMethod, @NonNull Class... expectingExceptions) {
+            return add(HandlerType.AND_RETHROW_FOR, expectingExceptions, rethrowMethod, null);
+        }
+
+        /**
+         * Rethrow to given exception, for all children exceptions of given exception.
+         *
+         * @param rethrowMethod      method which will rethrow to given exception.
+         * @param expectingException parent exception.
+         * @return this builder to further chaining.
+         */
+        public Builder<X> andRethrowForParent(@NonNull Function<Throwable, ? extends X> rethrowMethod, @NonNull Class expectingException) {
+            return add(HandlerType.AND_RETHROW_FOR_PARENT, new Class[]{expectingException}, rethrowMethod, null);
+        }
+
+        /**
+         * Invoke given method only when one of given exception list is thrown.
+         *
+         * @param errorConsumer       method which will be invoked.
+         * @param expectingExceptions list of expected exceptions.
+         * @return this builder to further chaining.
+         */
+        public Builder<X> andInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+            return add(HandlerType.AND_INVOKE_FOR, expectingExceptions, null, errorConsumer);
+        }
+
+        /**
+         * Invoke given method, for all children exceptions of given exception.
+         *
+         * @param errorConsumer      method which will be invoked.
+         * @param expectingException parent exception.
+         * @return this builder to further chaining.
+         */
+        public Builder<X> andInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
+            return add(HandlerType.AND_INVOKE_FOR_PARENT, new Class[]{expectingException}, null, errorConsumer);
+        }
+
+        /**
+         * Execute the supplier again, when one of exception on given list is thrown.
+         * Retries are done before the rest of chain, wherever declared, by every entry point which runs the policy:
+         * execute* methods, batch execution of {@link ExceptionWrapper#handleAll(List, ExceptionPolicy)} and
+         * its parallel variants, and adapters like {@link ExceptionWrapper#function(ThrowingFunction, ExceptionPolicy)},
+         * which call the failed function again with the same argument.
+         *
+         * @param maxAttempts         maximal number of executions, including the first one.
+         * @param backoff             delay between attempts.
+         * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+         * @return this builder to further chaining.
+         */
+        public Builder<X> andRetryFor(int maxAttempts, @NonNull Backoff backoff, @NonNull Class... expectingExceptions) {
+            if (Objects.nonNull(retriedExceptions)) {
+                throw new IllegalStateException("Policy can declare only one retry handler");
+            }
+            this.maxAttempts = Retry.checkMaxAttempts(maxAttempts);
+            this.backoff = backoff;
+            this.retriedExceptions = expectingExceptions.clone();
+            return this;
+        }
+
+        /**
+         * Limit retries of all executions of the policy with given budget, by default retries are unlimited.
+         *
+         * @param budget budget of retries.
+         * @return this builder to further chaining.
+         */
+        public Builder<X> retryBudget(@NonNull RetryBudget budget) {
+            this.retryBudget = budget;
+            return this;
+        }
+
+        /**
+         * Allow throwing unchecked exceptions as checked in finalizer methods.
+         *
+         * @return this builder to further chaining.
+         */
+        public Builder<X> rethrowUnsafe() {
+            this.rethrowUnsafe = true;
+            return this;
+        }
+
+        /**
+         * Finalizer method that will rethrow to given exception, when one of exception on given list is thrown.
+         *
+         * @param rethrowMethod       method which will rethrow to given exception.
+         * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+         * @return compiled {@link ExceptionPolicy}.
+         */
+        public ExceptionPolicy<X> thenRethrowFor(@NonNull Function<Throwable, ? extends X> rethrowMethod, @NonNull Class... expectingExceptions) {
+            return add(HandlerType.THEN_RETHROW_FOR, expectingExceptions, rethrowMethod, null).build();
+        }
+
+        /**
+         * Finalizer method that will rethrow to given exception, for all children exceptions of given exception.
+         *
+         * @param rethrowMethod      method which will rethrow to given exception.
+         * @param expectingException parent exception.
+         * @return compiled {@link ExceptionPolicy}.
+         */
+        public ExceptionPolicy<X> thenRethrowForParent(@NonNull Function<Throwable, ? extends X> rethrowMethod, @NonNull Class expectingException) {
+            return add(HandlerType.THEN_RETHROW_FOR_PARENT, new Class[]{expectingException}, rethrowMethod, null).build();
+        }
+
+        /**
+         * Finalizer method that will rethrow to given exception, only if it wasn't handled before in chain.
+         *
+         * @param rethrowMethod method which will rethrow to given exception.
+         * @return compiled {@link ExceptionPolicy}.
+         */
+        public ExceptionPolicy<X> thenRethrowForUnhandled(@NonNull Function<Throwable, ? extends X> rethrowMethod) {
+            return add(HandlerType.THEN_RETHROW_FOR_UNHANDLED, new Class[0], rethrowMethod, null).build();
+        }
+
+        /**
+         * Finalizer method that will invoke given method, when one of given exception list is thrown.
+         *
+         * @param errorConsumer       method which will be invoked.
+         * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+         * @return compiled {@link ExceptionPolicy}.
+         */
+        public ExceptionPolicy<X> thenInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+            return add(HandlerType.THEN_INVOKE_FOR, expectingExceptions, null, errorConsumer).build();
+        }
+
+        /**
+         * Finalizer method that will invoke given method, for all children exceptions of given exception.
+         *
+         * @param errorConsumer      method which will be invoked.
+         * @param expectingException parent exception.
+         * @return compiled {@link ExceptionPolicy}.
+         */
+        public ExceptionPolicy<X> thenInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
+            return add(HandlerType.THEN_INVOKE_FOR_PARENT, new Class[]{expectingException}, null, errorConsumer).build();
+        }
+
+        /**
+         * Finalizer method that will invoke given method, only if it wasn't handled before in chain.
+         *
+         * @param errorConsumer method which will be invoked.
+         * @return compiled {@link ExceptionPolicy}.
+         */
+        public ExceptionPolicy<X> thenInvokeForUnhandled(@NonNull Consumer<Throwable> errorConsumer) {
+            return add(HandlerType.THEN_INVOKE_FOR_UNHANDLED, new Class[0], null, errorConsumer).build();
+        }
+
+        /**
+         * Adds handler to chain. Duplicated handlers are reported once here, instead of on every execution.
+         */
+        private Builder<X> add(HandlerType type, Class[] expectingExceptions, Function<Throwable, ? extends Throwable> rethrowMethod,
+                               Consumer<Throwable> errorConsumer) {
+            HandlerStage stage = new HandlerStage(type, expectingExceptions, rethrowMethod, errorConsumer, usedExceptions);
+
+            if (DuplicateHandlerReporter.isEnabled()) {
+                stage.duplicatedExceptions().forEach(DuplicateHandlerReporter::report);
+            }
+
+            stages.add(stage);
+            usedExceptions = stage.nextUsedExceptions();
+            return this;
+        }
+
+        private ExceptionPolicy<X> build() {
+            Retry retry = Objects.isNull(retriedExceptions) ? null : new Retry(maxAttempts, backoff, retryBudget, retriedExceptions);
+            return new ExceptionPolicy<>(stages, rethrowUnsafe, retry);
+        }
+    }
+}
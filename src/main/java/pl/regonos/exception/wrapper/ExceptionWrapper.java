@@ -1,16 +1,19 @@
 package pl.regonos.exception.wrapper;
 
 import lombok.NonNull;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.stream.Stream;
+import java.util.function.Predicate;
 
 /**
  * Builder class for complex exception handling. Look for method java docs to find a detailed description.
@@ -18,15 +21,15 @@ import java.util.stream.Stream;
  *
  * @author Igor Maculewicz
  */
-//TODO add Optional "map-like" method to map exception to another object(not exception).
-public class ExceptionWrapper<T> {
+public class ExceptionWrapper<T> extends AbstractExceptionWrapper<ExceptionWrapper<T>> {
 
-    private Logger logger = LoggerFactory.getLogger(ExceptionWrapper.class);
+    private static final Function<Throwable, LightweightException> STACKLESS = LightweightException::new;
 
+    /**
+     * Supplier executed by this wrapper, null for wrappers of already executed code.
+     */
+    private final ThrowingSupplier<T> supplier;
     private T result;
-    private Throwable error;
-    private Set<Class> usedExceptions;
-    private boolean rethrowUnsafe;
 
     /**
      * Private constructor because of declared static one.
@@ -34,12 +37,25 @@ public class ExceptionWrapper<T> {
      * @param supplier which contains code that have to be handled.
      */
     private ExceptionWrapper(@NonNull ThrowingSupplier<T> supplier, boolean rethrowUnsafe) {
-        this.usedExceptions = new HashSet<>();
-        this.rethrowUnsafe = rethrowUnsafe;
+        super(rethrowUnsafe);
+        this.supplier = supplier;
 
         handleSupplier(supplier);
     }
 
+    /**
+     * Package private constructor for wrappers of already executed code.
+     *
+     * @param result value returned by executed code.
+     * @param error  exception thrown by executed code, or null.
+     */
+    ExceptionWrapper(T result, Throwable error) {
+        super(false);
+        this.supplier = null;
+        this.result = result;
+        this.error = error;
+    }
+
     /**
      * Main handler method which taking a supplier with code to handle.
      *
@@ -52,89 +68,358 @@ public class ExceptionWrapper<T> {
     }
 
     /**
-     * If expected exception is thrown, propagate it higher.
+     * Handler method which executes supplier only when given circuit breaker permits it.
+     * Rejected call fails with {@link CallNotPermittedException}, which can be handled like any other exception.
      *
-     * @param expectingException exception which will be propagated
-     * @param <X>                Generic exception type which will be thrown.
+     * @param supplier       which contains code that have to be handled.
+     * @param circuitBreaker circuit breaker which protects the supplier.
+     * @param <T>            every object which will be returned later in process.
      * @return instance of created {@link ExceptionWrapper}.
-     * @throws X {@link Throwable} which will be thrown on fail in supplier.
      */
-    @SuppressWarnings("unchecked")
-    public <X extends Throwable> ExceptionWrapper<T> andThrowFor(@NonNull Class<X> expectingException) throws X {
+    public static <T> ExceptionWrapper<T> handleWithCircuitBreaker(@NonNull ThrowingSupplier<T> supplier, @NonNull CircuitBreaker circuitBreaker) {
+        return new ExceptionWrapper<>(circuitBreaker.decorate(supplier), false);
+    }
 
-        if (checkAnyClassIsAllowed(true, expectingException)) {
-            usedExceptions.add(expectingException);
-            throw (X) error;
-        }
+    /**
+     * Handler method which executes supplier only with a free permit of given bulkhead.
+     * Rejected call fails with {@link BulkheadFullException}, which can be handled like any other exception.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @param bulkhead bulkhead which limits concurrent executions.
+     * @param <T>      every object which will be returned later in process.
+     * @return instance of created {@link ExceptionWrapper}.
+     */
+    public static <T> ExceptionWrapper<T> handleWithBulkhead(@NonNull ThrowingSupplier<T> supplier, @NonNull Bulkhead bulkhead) {
+        return new ExceptionWrapper<>(bulkhead.decorate(supplier), false);
+    }
 
-        return this;
+    /**
+     * Handler method which executes supplier in the calling thread, bounded by given timeout.
+     * When timeout passes, the calling thread is interrupted and the supplier fails with {@link java.util.concurrent.TimeoutException},
+     * which can be handled like any other exception. Deadlines are driven by one shared timer thread, with 10 ms precision.
+     * Supplier have to respond to interruption, e.g. blocking I/O which ignores interrupts is not stopped.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @param timeout  maximal time of execution.
+     * @param <T>      every object which will be returned later in process.
+     * @return instance of created {@link ExceptionWrapper}.
+     */
+    public static <T> ExceptionWrapper<T> handleWithTimeout(@NonNull ThrowingSupplier<T> supplier, @NonNull Duration timeout) {
+        return new ExceptionWrapper<>(Deadline.decorate(supplier, timeout), false);
     }
 
     /**
-     * Method that will rethrow to given exception, only when one of exception on given list will be thrown while execution of supplier.
+     * Handler method which executes supplier with given executor, and starts the second attempt if the first one
+     * does not finish within hedge delay, or fails. The first successful attempt wins, the other one is cancelled by interrupt.
+     * Handlers see an exception only if every attempt fails: exception of the first attempt, the other one is dropped.
+     * Supplier have to be idempotent, and executor should not run attempts in the submitting thread. The second attempt is
+     * submitted by the calling thread, never by the shared timer thread. Interrupted calling thread cancels all attempts
+     * and handlers see {@link InterruptedException}, with interrupt flag of the thread cleared.
      *
-     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
-     * @param expectingExceptions list of expected exceptions.
-     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
-     * @return instance of {@link ExceptionWrapper} to further chaining.
-     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     * @param supplier   which contains code that have to be handled.
+     * @param hedgeAfter delay after which the second attempt is started.
+     * @param executor   executor which runs attempts.
+     * @param <T>        every object which will be returned later in process.
+     * @return instance of created {@link ExceptionWrapper}.
      */
-    public <X extends Throwable> ExceptionWrapper<T> andRethrowFor(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
+    public static <T> ExceptionWrapper<T> handleHedged(@NonNull ThrowingSupplier<T> supplier, @NonNull Duration hedgeAfter, @NonNull Executor executor) {
+        return new ExceptionWrapper<>(Hedge.decorate(supplier, hedgeAfter, executor), false);
+    }
 
-        if (checkAnyClassIsAllowed(true, expectingExceptions)) {
-            throw rethrowMethod.apply(error);
-        }
+    /**
+     * Handler method which returns value cached for given key, and executes supplier only if there is none.
+     * Exceptions of supplier are handled by the chain as usual, cached failures are handled the same way, see {@link CachePolicy}.
+     *
+     * @param key      key of cached value.
+     * @param supplier which contains code that have to be handled.
+     * @param cache    cache of values.
+     * @param <K>      type of keys.
+     * @param <T>      every object which will be returned later in process.
+     * @return instance of created {@link ExceptionWrapper}.
+     */
+    public static <K, T> ExceptionWrapper<T> handleCached(@NonNull K key, @NonNull ThrowingSupplier<? extends T> supplier, @NonNull CachePolicy<K, T> cache) {
+        return new ExceptionWrapper<>(cache.decorate(key, supplier), false);
+    }
 
-        return this;
+    /**
+     * Asynchronous handler method, which executes supplier with given executor.
+     * Handlers of returned wrapper are composed onto {@link CompletableFuture}, so none of them blocks the calling thread.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @param executor executor which will run the supplier.
+     * @param <T>      every object which will be returned later in process.
+     * @return instance of created {@link AsyncExceptionWrapper}.
+     */
+    public static <T> AsyncExceptionWrapper<T> handleAsync(@NonNull ThrowingSupplier<T> supplier, @NonNull Executor executor) {
+        return AsyncExceptionWrapper.supply(supplier, executor);
     }
 
     /**
-     * Finalizer method that will rethrow to given exception, only when one of exception on given list will be thrown while execution of supplier.
+     * Asynchronous handler method for code which already returns a {@link CompletionStage}.
      *
-     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
-     * @param expectingExceptions list of expected exceptions.
-     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
-     * @return returns <T> value if no exception thrown in supplier.
-     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     * @param stage stage which result have to be handled.
+     * @param <T>   every object which will be returned later in process.
+     * @return instance of created {@link AsyncExceptionWrapper}.
      */
-    public <X extends Throwable> T thenRethrowFor(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
+    public static <T> AsyncExceptionWrapper<T> handleAsync(@NonNull CompletionStage<T> stage) {
+        return AsyncExceptionWrapper.of(stage);
+    }
+
+    /**
+     * Batch handler method, which executes suppliers one by one and collects outcomes into a single {@link BatchResult}.
+     * Every exception thrown by a supplier is recorded as its failure.
+     *
+     * @param suppliers which contains code that have to be handled.
+     * @param <T>       every object which will be returned later in process.
+     * @return result of all suppliers.
+     */
+    public static <T> BatchResult<T> handleAll(@NonNull List<? extends ThrowingSupplier<? extends T>> suppliers) {
+        Batch<T> batch = new Batch<>(suppliers, null);
+        return batch.toResult(batch.run(0, batch.size()));
+    }
+
+    /**
+     * Batch handler method, which handles exceptions of every supplier with given precompiled policy.
+     * Supplier is retried first, if the policy declares retry for its exception.
+     * Exception handled by the policy without rethrow is not a failure, supplier result is null then.
+     * Exception rethrown by the policy is recorded as failure of supplier.
+     *
+     * @param suppliers which contains code that have to be handled.
+     * @param policy    policy which handles exceptions.
+     * @param <T>       every object which will be returned later in process.
+     * @return result of all suppliers.
+     */
+    public static <T> BatchResult<T> handleAll(@NonNull List<? extends ThrowingSupplier<? extends T>> suppliers, @NonNull ExceptionPolicy<?> policy) {
+        Batch<T> batch = new Batch<>(suppliers, policy);
+        return batch.toResult(batch.run(0, batch.size()));
+    }
+
+    /**
+     * Parallel variant of {@link #handleAll(List, ExceptionPolicy)}, which executes suppliers in the common {@link ForkJoinPool}.
+     * Backoff of retry declared by the policy is waited in the worker thread.
+     *
+     * @param suppliers which contains code that have to be handled, they have to be independent of each other.
+     * @param policy    policy which handles exceptions.
+     * @param <T>       every object which will be returned later in process.
+     * @return result of all suppliers.
+     */
+    public static <T> BatchResult<T> handleAllParallel(@NonNull List<? extends ThrowingSupplier<? extends T>> suppliers, @NonNull ExceptionPolicy<?> policy) {
+        return handleAllParallel(suppliers, policy, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel variant of {@link #handleAll(List, ExceptionPolicy)}, which splits suppliers between workers of given pool.
+     * Handlers of the policy can be invoked concurrently, so they have to be thread safe.
+     * Backoff of retry declared by the policy is waited in the worker thread.
+     *
+     * @param suppliers which contains code that have to be handled, they have to be independent of each other.
+     * @param policy    policy which handles exceptions.
+     * @param pool      pool which will execute suppliers.
+     * @param <T>       every object which will be returned later in process.
+     * @return result of all suppliers.
+     */
+    public static <T> BatchResult<T> handleAllParallel(@NonNull List<? extends ThrowingSupplier<? extends T>> suppliers, @NonNull ExceptionPolicy<?> policy,
+                                                       @NonNull ForkJoinPool pool) {
+        return new Batch<T>(suppliers, policy).runParallel(pool);
+    }
+
+    /**
+     * Handler method which executes supplier on a virtual thread and waits for it.
+     * On runtimes older than Java 21 supplier is executed in the calling thread.
+     *
+     * @param supplier which contains code that have to be handled.
+     * @param <T>      every object which will be returned later in process.
+     * @return instance of created {@link ExceptionWrapper}.
+     */
+    public static <T> ExceptionWrapper<T> handleOnVirtualThread(@NonNull ThrowingSupplier<T> supplier) {
+        return handleAllOnVirtualThreads(Collections.singletonList(supplier)).get(0);
+    }
 
-        boolean isError =
-                //If expecting exceptions is empty
-                (expectingExceptions.length == 0
-                        //And error is present
-                        && Objects.nonNull(error))
-                        //Or Any of given classes are allowed
-                        || checkAnyClassIsAllowed(true, expectingExceptions);
+    /**
+     * Batch handler method which executes every supplier on its own virtual thread and waits for all of them.
+     * Returned wrappers are in the same order as given suppliers, and each of them can be chained as usual.
+     * On runtimes older than Java 21 suppliers are executed one by one in the calling thread.
+     * If the calling thread is interrupted, running suppliers are interrupted too and the interrupt flag is restored.
+     *
+     * @param suppliers which contains code that have to be handled.
+     * @param <T>       every object which will be returned later in process.
+     * @return list of created {@link ExceptionWrapper}, one per supplier.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<ExceptionWrapper<T>> handleAllOnVirtualThreads(@NonNull List<? extends ThrowingSupplier<T>> suppliers) {
+        ExceptionWrapper<T>[] wrappers = new ExceptionWrapper[suppliers.size()];
 
-        if (isError) {
-            throw rethrowMethod.apply(error);
+        if (!VirtualThreads.isAvailable()) {
+            for (int i = 0; i < wrappers.length; i++) {
+                wrappers[i] = handle(suppliers.get(i));
+            }
+            return Arrays.asList(wrappers);
         }
 
-        escapeUnhandledRuntimeExceptions();
+        Thread[] threads = new Thread[wrappers.length];
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            ThrowingSupplier<T> supplier = suppliers.get(i);
+            threads[i] = VirtualThreads.start(() -> wrappers[index] = handle(supplier));
+        }
 
-        return result;
+        boolean interrupted = false;
+        for (int i = 0; i < threads.length; i++) {
+            try {
+                threads[i].join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+                for (Thread thread : threads) {
+                    thread.interrupt();
+                }
+                i--;
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return Arrays.asList(wrappers);
     }
 
+    /**
+     * Adapts throwing function to {@link Function}, which handles exceptions with given precompiled policy.
+     * No wrapper is created per call, so returned function can be used in large, also parallel, streams.
+     * Checked exceptions rethrown by the policy are thrown as they are. Failed call is retried with the same argument,
+     * if the policy declares retry for its exception.
+     *
+     * @param function function which exceptions have to be handled.
+     * @param policy   policy which handles exceptions.
+     * @param <T>      type of function argument.
+     * @param <R>      type of function result.
+     * @return function which returns null if exception was handled without rethrow.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, R> Function<T, R> function(@NonNull ThrowingFunction<? super T, ? extends R> function, @NonNull ExceptionPolicy<?> policy) {
+        return value -> {
+            try {
+                return function.apply(value);
+            } catch (Throwable ex) {
+                return (R) policy.handleErrorUnchecked(ex, () -> function.apply(value));
+            }
+        };
+    }
 
     /**
-     * Method that will rethrow to given exception, for all children exceptions of given exception.
+     * Adapts throwing consumer to {@link Consumer}, which handles exceptions with given precompiled policy.
+     * Failed call is retried with the same argument, if the policy declares retry for its exception.
      *
-     * @param rethrowMethod      method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param consumer consumer which exceptions have to be handled.
+     * @param policy   policy which handles exceptions.
+     * @param <T>      type of consumer argument.
+     * @return consumer handling its exceptions.
+     */
+    public static <T> Consumer<T> consumer(@NonNull ThrowingConsumer<? super T> consumer, @NonNull ExceptionPolicy<?> policy) {
+        return value -> {
+            try {
+                consumer.accept(value);
+            } catch (Throwable ex) {
+                policy.handleErrorUnchecked(ex, () -> {
+                    consumer.accept(value);
+                    return null;
+                });
+            }
+        };
+    }
+
+    /**
+     * Adapts throwing predicate to {@link Predicate}, which handles exceptions with given precompiled policy.
+     * Failed call is retried with the same argument, if the policy declares retry for its exception.
+     *
+     * @param predicate predicate which exceptions have to be handled.
+     * @param policy    policy which handles exceptions.
+     * @param <T>       type of predicate argument.
+     * @return predicate which returns false if exception was handled without rethrow, unless retry succeeded.
+     */
+    public static <T> Predicate<T> predicate(@NonNull ThrowingPredicate<? super T> predicate, @NonNull ExceptionPolicy<?> policy) {
+        return value -> {
+            try {
+                return predicate.test(value);
+            } catch (Throwable ex) {
+                return Boolean.TRUE.equals(policy.handleErrorUnchecked(ex, () -> predicate.test(value)));
+            }
+        };
+    }
+
+    /**
+     * Rethrow method which translates exception into {@link LightweightException}, without capturing a new stack trace.
+     * <pre>{@code
+     * ExceptionWrapper.handle(() -> read()).thenRethrowFor(ExceptionWrapper.stackless(), IOException.class);
+     * }</pre>
+     *
+     * @return shared rethrow method.
+     */
+    public static Function<Throwable, LightweightException> stackless() {
+        return STACKLESS;
+    }
+
+    /**
+     * Rethrow method which translates exception into {@link LightweightException} with given message, without capturing a new stack trace.
+     *
+     * @param message detail message of translated exception.
+     * @return rethrow method.
+     */
+    public static Function<Throwable, LightweightException> stackless(String message) {
+        return ex -> new LightweightException(message, ex);
+    }
+
+    /**
+     * Method that will replace exception with a value returned by given method, only when one of exception on given list
+     * will be thrown while execution of supplier. After recovery the rest of chain behaves as if supplier returned that value.
+     *
+     * @param recoverMethod       method which will return a value instead of exception.
+     * @param expectingExceptions list of expected exceptions.
+     * @return instance of wrapper to further chaining.
+     */
+    public ExceptionWrapper<T> andRecoverFor(@NonNull Function<Throwable, ? extends T> recoverMethod, @NonNull Class... expectingExceptions) {
+
+        Throwable recovered = recoverFor(expectingExceptions);
+        if (Objects.nonNull(recovered)) {
+            result = recoverMethod.apply(recovered);
+        }
+
+        return this;
+    }
+
+    /**
+     * Method that will replace exception with a value returned by given method, for all children exceptions of given exception.
+     *
+     * @param recoverMethod      method which will return a value instead of exception.
      * @param expectingException parent exception.
-     * @return instance of {@link ExceptionWrapper} to further chaining.
-     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     * @return instance of wrapper to further chaining.
      */
-    public <X extends Throwable> ExceptionWrapper<T> andRethrowForParent(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class expectingException) throws X {
+    public ExceptionWrapper<T> andRecoverForParent(@NonNull Function<Throwable, ? extends T> recoverMethod, @NonNull Class expectingException) {
 
-        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !usedExceptions.contains(error.getClass())) {
-            usedExceptions.add(error.getClass());
-            throw rethrowMethod.apply(error);
+        Throwable recovered = recoverForParent(expectingException);
+        if (Objects.nonNull(recovered)) {
+            result = recoverMethod.apply(recovered);
         }
 
         return this;
     }
 
+    /**
+     * Finalizer method that will rethrow to given exception, only when one of exception on given list will be thrown while execution of supplier.
+     *
+     * @param rethrowMethod       method which will rethrow to given exception, if one of exception will be thrown in supplier.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @return returns <T> value if no exception thrown in supplier.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
+     */
+    public <X extends Throwable> T thenRethrowFor(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
+
+        finishRethrowFor(rethrowMethod, expectingExceptions);
+
+        return result;
+    }
+
     /**
      * Finalizer method that will rethrow to given exception, for all children exceptions of given exception.
      *
@@ -145,12 +430,7 @@ public class ExceptionWrapper<T> {
      */
     public <X extends Throwable> T thenRethrowForParent(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class expectingException) throws X {
 
-        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !usedExceptions.contains(error.getClass())) {
-            usedExceptions.add(error.getClass());
-            throw rethrowMethod.apply(error);
-        }
-
-        escapeUnhandledRuntimeExceptions();
+        finishRethrowForParent(rethrowMethod, expectingException);
 
         return result;
     }
@@ -165,27 +445,25 @@ public class ExceptionWrapper<T> {
      */
     public <X extends Throwable> T thenRethrowForUnhandled(@NonNull Function<Throwable, X> exceptionSupplier) throws X {
 
-        if (Objects.nonNull(error) && isUnhandled(error.getClass())) {
-            throw exceptionSupplier.apply(error);
-        }
+        finishRethrowForUnhandled(exceptionSupplier);
 
         return result;
     }
 
     /**
-     * Method that will invoke given method only when one of given exception list will be thrown while execution of supplier.
+     * Finalizer method that will rethrow to given exception, when thrown exception or any of its causes is one of exception on given list.
      *
-     * @param errorConsumer       method which will be invoked if one of exception will be thrown in supplier.
-     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
-     * @return instance of {@link ExceptionWrapper} to further chaining.
+     * @param rethrowMethod       method which will rethrow to given exception, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
+     * @param <X>                 {@link Throwable} which will be thrown on fail in supplier.
+     * @return returns <T> value if no exception thrown in supplier.
+     * @throws X {@link Throwable} which will be thrown on fail in supplier.
      */
-    public ExceptionWrapper<T> andInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
+    public <X extends Throwable> T thenRethrowForCause(@NonNull Function<Throwable, X> rethrowMethod, @NonNull Class... expectingExceptions) throws X {
 
-        if (checkAnyClassIsAllowed(false, expectingExceptions)) {
-            errorConsumer.accept(error);
-        }
+        finishRethrowForCause(rethrowMethod, expectingExceptions);
 
-        return this;
+        return result;
     }
 
     /**
@@ -197,54 +475,35 @@ public class ExceptionWrapper<T> {
      */
     public T thenInvokeFor(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
 
-        boolean isError =
-                //If expecting exceptions is empty
-                (expectingExceptions.length == 0
-                        //And error is present
-                        && Objects.nonNull(error))
-                        //Or Any of given classes are allowed
-                        || checkAnyClassIsAllowed(true, expectingExceptions);
-
-        if (isError) {
-            errorConsumer.accept(error);
-        } else {
-            escapeUnhandledRuntimeExceptions();
-        }
+        finishInvokeFor(errorConsumer, expectingExceptions);
 
         return result;
     }
 
     /**
-     * Method that will invoke given method, for all children exceptions of given exception.
+     * Finalizer method that will invoke given method, for all children exceptions of given exception.
      *
      * @param errorConsumer      method which will be invoked if one of exception will be thrown in supplier.
      * @param expectingException parent exception.
-     * @return instance of {@link ExceptionWrapper} to further chaining.
+     * @return returns <T> value if no exception thrown in supplier.
      */
-    public ExceptionWrapper<T> andInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
+    public T thenInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
 
-        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !usedExceptions.contains(error.getClass())) {
-            errorConsumer.accept(error);
-        }
+        finishInvokeForParent(errorConsumer, expectingException);
 
-        return this;
+        return result;
     }
 
     /**
-     * Finalizer method that will invoke given method, for all children exceptions of given exception.
+     * Finalizer method that will invoke given method, when thrown exception or any of its causes is one of exception on given list.
      *
-     * @param errorConsumer      method which will be invoked if one of exception will be thrown in supplier.
-     * @param expectingException parent exception.
+     * @param errorConsumer       method which will be invoked, receives the matched cause.
+     * @param expectingExceptions list of expected exceptions.
      * @return returns <T> value if no exception thrown in supplier.
      */
-    public T thenInvokeForParent(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class expectingException) {
-
-        if (Objects.nonNull(error) && isChildrenOf(error.getClass(), expectingException) && !usedExceptions.contains(error.getClass())) {
-            errorConsumer.accept(error);
-        } else {
-            escapeUnhandledRuntimeExceptions();
-        }
+    public T thenInvokeForCause(@NonNull Consumer<Throwable> errorConsumer, @NonNull Class... expectingExceptions) {
 
+        finishInvokeForCause(errorConsumer, expectingExceptions);
 
         return result;
     }
@@ -257,110 +516,96 @@ public class ExceptionWrapper<T> {
      */
     public T thenInvokeForUnhandled(@NonNull Consumer<Throwable> errorConsumer) {
 
-        if (Objects.nonNull(error) && isUnhandled(error.getClass())) {
-            errorConsumer.accept(error);
-        }
+        finishInvokeForUnhandled(errorConsumer);
 
         return result;
     }
 
     /**
-     * Method to allow throwing unchecked exceptions as checked in finalizer methods.
+     * Finalizer method that will return a value returned by given method, when one of exception on given list will be thrown while execution of supplier.
      *
-     * @return instance of {@link ExceptionWrapper} to further chaining.
+     * @param recoverMethod       method which will return a value instead of exception.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return returns <T> value if no exception thrown in supplier, otherwise recovered value.
      */
-    public ExceptionWrapper<T> rethrowUnsafe() {
-        this.rethrowUnsafe = true;
-        return this;
-    }
+    public T thenRecoverFor(@NonNull Function<Throwable, ? extends T> recoverMethod, @NonNull Class... expectingExceptions) {
 
-    /**
-     * Main method to handle a code in supplier.
-     *
-     * @param supplier supplier with code to execute.
-     */
-    private void handleSupplier(ThrowingSupplier<T> supplier) {
-        try {
-            this.result = supplier.get();
-        } catch (Throwable ex) {
-            this.error = ex;
-        }
+        Throwable recovered = finishRecoverFor(expectingExceptions);
+
+        return Objects.nonNull(recovered) ? recoverMethod.apply(recovered) : result;
     }
 
     /**
-     * Check that given classes is allowed to use in given method.
+     * Finalizer method that will return a value returned by given method, for all children exceptions of given exception.
      *
-     * @param registerExceptionAsUsed register given classes as used.
-     * @param classes                 classes which have to be checked.
-     * @return flag that classes are allowed or not.
+     * @param recoverMethod      method which will return a value instead of exception.
+     * @param expectingException parent exception.
+     * @return returns <T> value if no exception thrown in supplier, otherwise recovered value.
      */
-    private boolean checkAnyClassIsAllowed(boolean registerExceptionAsUsed, Class... classes) {
-        checkAlreadyUsed(classes);
+    public T thenRecoverForParent(@NonNull Function<Throwable, ? extends T> recoverMethod, @NonNull Class expectingException) {
 
-        if (registerExceptionAsUsed) {
-            usedExceptions.addAll(Arrays.asList(classes));
-        }
+        Throwable recovered = finishRecoverForParent(expectingException);
 
-        return Objects.nonNull(error) &&
-                Stream.of(classes).anyMatch(cl -> error.getClass().equals(cl));
+        return Objects.nonNull(recovered) ? recoverMethod.apply(recovered) : result;
     }
 
     /**
-     * Check that given classes was already used.
+     * Finalizer method that will return a value returned by given method, only if exception wasn't handled before in chain.
      *
-     * @param classes classes which have to be checked.
+     * @param recoverMethod method which will return a value instead of exception.
+     * @return returns <T> value if no exception thrown in supplier, otherwise recovered value.
      */
-    private void checkAlreadyUsed(Class... classes) {
-        Stream.of(classes).forEach(v -> {
-            if (usedExceptions.contains(v)) {
-                logger.warn("You handled exception: {}, more than once!", v.getName());
-            }
-        });
-    }
+    public T thenRecoverForUnhandled(@NonNull Function<Throwable, ? extends T> recoverMethod) {
 
-    /**
-     * Checks that class is unhandled.
-     *
-     * @param unhandledClass class which have to be checked.
-     * @return flag that classes are unhandled or not.
-     */
-    private boolean isUnhandled(Class unhandledClass) {
-        return usedExceptions.stream().noneMatch(ex -> ex.equals(unhandledClass));
+        Throwable recovered = finishRecoverForUnhandled();
+
+        return Objects.nonNull(recovered) ? recoverMethod.apply(recovered) : result;
     }
 
     /**
-     * Check that given class is children of given parent class.
+     * Finalizer method that will return outcome of supplier as {@link Result}, instead of rethrowing exception.
+     * Exceptions from given list become {@link Result.Failure}, other runtime exceptions are escaped like in the rest of finalizers,
+     * and other checked exceptions become {@link Result.Failure} too, so a failed call never becomes a {@link Result.Success}.
+     * Exception replaced by andRecoverFor handlers becomes {@link Result.Success} with the recovered value.
      *
-     * @param childrenClass children class which will be checked.
-     * @param parentClass   parent class which will be checked.
-     * @return flag that indicates that given children class is children of given parent class.
+     * @param expectingExceptions list of expected exceptions. If empty then will be treated as any {@link Throwable}
+     * @return successful result if no exception thrown in supplier, otherwise failed result.
      */
-    private boolean isChildrenOf(Class childrenClass, Class parentClass) {
-        return !childrenClass.equals(parentClass) && parentClass.isAssignableFrom(childrenClass);
+    public Result<T> toResult(@NonNull Class... expectingExceptions) {
+
+        Throwable failure = finishToResult(expectingExceptions);
+        if (Objects.nonNull(failure)) {
+            return Result.failure(failure);
+        }
+
+        //Unmatched checked exception is neither recovered nor escaped, so it is still a failure
+        return Objects.nonNull(error) ? Result.failure(error) : Result.success(result);
     }
 
-    /**
-     * Escape unhandled exceptions.
-     */
-    private void escapeUnhandledRuntimeExceptions() {
-        boolean allowEscape = (this.rethrowUnsafe || error instanceof RuntimeException)
-                && checkAnyClassIsAllowed(false, error.getClass());
+    @Override
+    boolean isRerunnable() {
+        return Objects.nonNull(supplier);
+    }
 
-        if (allowEscape) {
-            throw escapeRuntimeException(error);
-        }
+    @Override
+    void rerun() {
+        this.error = null;
+        handleSupplier(supplier);
     }
 
     /**
-     * Cast a CheckedException as an unchecked one.
+     * Main method to handle a code in supplier.
      *
-     * @param throwable to cast
-     * @param <X>       the type of the Throwable
-     * @return this method will never return a Throwable instance, it will just throw it.
-     * @throws T the throwable as an unchecked throwable
+     * @param supplier supplier with code to execute.
      */
-    @SuppressWarnings("unchecked")
-    private <X extends Throwable> RuntimeException escapeRuntimeException(Throwable throwable) throws X {
-        throw (X) throwable;
+    private void handleSupplier(ThrowingSupplier<T> supplier) {
+        Object execution = FlightEvents.beginExecution();
+        try {
+            this.result = supplier.get();
+        } catch (Throwable ex) {
+            this.error = ex;
+            FlightEvents.exceptionCaptured(ex);
+        }
+        FlightEvents.endExecution(execution, error);
     }
 }
@@ -0,0 +1,58 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Hooks emitting JDK Flight Recorder events. This is the no-op variant for runtimes without {@code jdk.jfr}.
+ * The multi-release jar replaces it with {@code META-INF/versions/11/pl/regonos/exception/wrapper/FlightEvents.class}.
+ *
+ * @author Igor Maculewicz
+ */
+final class FlightEvents {
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Starts timing of supplier execution.
+     *
+     * @return execution token passed to {@link #endExecution(Object, Throwable)}, null if execution is not recorded.
+     */
+    static Object beginExecution() {
+        return null;
+    }
+
+    /**
+     * Ends timing of supplier execution.
+     *
+     * @param execution token returned by {@link #beginExecution()}.
+     * @param error     exception thrown by supplier, or null.
+     */
+    static void endExecution(Object execution, Throwable error) {
+    }
+
+    /**
+     * Records exception captured from supplier.
+     *
+     * @param error captured exception.
+     */
+    static void exceptionCaptured(Throwable error) {
+    }
+
+    /**
+     * Records handler matched for exception.
+     *
+     * @param errorClass class of matched exception.
+     * @param type       type of matched handler.
+     */
+    static void handlerMatched(Class<?> errorClass, HandlerType type) {
+    }
+
+    /**
+     * Records exception thrown by handler.
+     *
+     * @param error    matched exception.
+     * @param rethrown exception thrown by handler, the same as matched one for andThrowFor.
+     * @param type     type of handler.
+     */
+    static void exceptionRethrown(Throwable error, Throwable rethrown, HandlerType type) {
+    }
+}
@@ -0,0 +1,121 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of access frequency, used by {@link CachePolicy} to decide whether a new entry is worth evicting an old one.
+ * Counters are saturated at 15 and halved after a sample of accesses, so the sketch forgets old popularity (TinyLFU).
+ * Counters take 4 bits, sixteen of them are packed into a single long, so the sketch costs 2 bytes per entry of the cache.
+ * Counters are updated with CAS only, estimate is approximate by design.
+ *
+ * @author Igor Maculewicz
+ */
+final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int COUNTERS_PER_WORD = 16;
+    /**
+     * Clears the bit which moves into the lower counter, when all counters of a word are shifted right by one.
+     */
+    private static final long HALVE_MASK = 0x7777777777777777L;
+    private static final int[] SEEDS = {0x97cb3127, 0x0b6c8f4f, 0x4f8b3a1d, 0x7f4a7c15};
+
+    private final AtomicLongArray table;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+
+    /**
+     * Creates sketch sized for given number of entries.
+     *
+     * @param maximumSize maximal number of cached entries.
+     */
+    FrequencySketch(long maximumSize) {
+        int size = (int) Math.min(Math.max(maximumSize, 16L), 1L << 24);
+        this.width = Integer.highestOneBit(size - 1) << 1;
+        this.table = new AtomicLongArray(DEPTH * width / COUNTERS_PER_WORD);
+        this.sampleSize = 10 * size;
+    }
+
+    /**
+     * Records access to given key.
+     *
+     * @param key accessed key.
+     */
+    void increment(Object key) {
+        int hash = spread(key.hashCode());
+        boolean added = false;
+
+        for (int row = 0; row < DEPTH; row++) {
+            added |= incrementAt(index(row, hash));
+        }
+
+        if (added && additions.incrementAndGet() == sampleSize) {
+            halve();
+        }
+    }
+
+    /**
+     * Estimates access frequency of given key.
+     *
+     * @param key checked key.
+     * @return estimated frequency, from 0 to 15.
+     */
+    int frequency(Object key) {
+        int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, countAt(index(row, hash)));
+        }
+        return frequency;
+    }
+
+    private int countAt(int index) {
+        return (int) (table.get(index / COUNTERS_PER_WORD) >>> shift(index)) & MAX_COUNT;
+    }
+
+    private boolean incrementAt(int index) {
+        int word = index / COUNTERS_PER_WORD;
+        int shift = shift(index);
+
+        while (true) {
+            long counters = table.get(word);
+            if (((counters >>> shift) & MAX_COUNT) == MAX_COUNT) {
+                return false;
+            }
+            if (table.compareAndSet(word, counters, counters + (1L << shift))) {
+                return true;
+            }
+        }
+    }
+
+    private void halve() {
+        for (int i = 0; i < table.length(); i++) {
+            long counters;
+            do {
+                counters = table.get(i);
+            } while (!table.compareAndSet(i, counters, (counters >>> 1) & HALVE_MASK));
+        }
+        additions.addAndGet(-sampleSize / 2);
+    }
+
+    /**
+     * Position of given counter in its word.
+     */
+    private static int shift(int index) {
+        return (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    private int index(int row, int hash) {
+        int h = (hash ^ SEEDS[row]) * SEEDS[row];
+        return row * width + ((h ^ (h >>> 16)) & (width - 1));
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,67 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Handlers of {@link ExceptionPolicy} resolved for a single exception class.
+ * Matching depends only on the class of thrown exception, so it is resolved once and then reused for every exception of that class.
+ * Resolution does not reference its policy, which keeps dropped policies collectable even when cached for system classes.
+ *
+ * @author Igor Maculewicz
+ */
+final class HandlerResolution {
+
+    private final HandlerStage[] matchedStages;
+    private final boolean escape;
+
+    private HandlerResolution(List<HandlerStage> matchedStages, boolean escape) {
+        this.matchedStages = matchedStages.toArray(new HandlerStage[0]);
+        this.escape = escape;
+    }
+
+    /**
+     * Walks the whole chain for given exception class, the same way as {@link ExceptionWrapper} does for a single call.
+     *
+     * @param stages        compiled chain of handlers.
+     * @param errorClass    class of thrown exception.
+     * @param rethrowUnsafe flag that checked exceptions can escape from finalizers.
+     * @return resolved handlers.
+     */
+    static HandlerResolution resolve(HandlerStage[] stages, Class errorClass, boolean rethrowUnsafe) {
+        List<HandlerStage> matchedStages = new ArrayList<>();
+
+        for (HandlerStage stage : stages) {
+            if (stage.matches(errorClass)) {
+                matchedStages.add(stage);
+
+                if (stage.getType().getAction() != HandlerType.Action.INVOKE) {
+                    return new HandlerResolution(matchedStages, false);
+                }
+            } else if (stage.getType().escapesUnmatched()) {
+                boolean escape = rethrowUnsafe || RuntimeException.class.isAssignableFrom(errorClass);
+                return new HandlerResolution(matchedStages, escape);
+            }
+        }
+
+        return new HandlerResolution(matchedStages, false);
+    }
+
+    /**
+     * Handlers matched in chain, in declaration order. Only the last one can throw.
+     *
+     * @return matched handlers.
+     */
+    HandlerStage[] getMatchedStages() {
+        return matchedStages;
+    }
+
+    /**
+     * Check that unmatched exception escapes from finalizer.
+     *
+     * @return flag that exception have to be thrown as it is, after invoking all matched handlers.
+     */
+    boolean isEscape() {
+        return escape;
+    }
+}
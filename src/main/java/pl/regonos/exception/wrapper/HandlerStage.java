@@ -0,0 +1,110 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Single, immutable handler of compiled {@link ExceptionPolicy}.
+ *
+ * @author Igor Maculewicz
+ */
+final class HandlerStage {
+
+    private final HandlerType type;
+    private final Class[] expectingExceptions;
+    private final Function<Throwable, ? extends Throwable> rethrowMethod;
+    private final Consumer<Throwable> errorConsumer;
+    /**
+     * Exceptions registered as used by handlers declared before this one.
+     */
+    private final Set<Class> usedExceptions;
+
+    HandlerStage(HandlerType type, Class[] expectingExceptions, Function<Throwable, ? extends Throwable> rethrowMethod,
+                 Consumer<Throwable> errorConsumer, Set<Class> usedExceptions) {
+        this.type = type;
+        this.expectingExceptions = expectingExceptions.clone();
+        this.rethrowMethod = rethrowMethod;
+        this.errorConsumer = errorConsumer;
+        this.usedExceptions = usedExceptions;
+    }
+
+    HandlerType getType() {
+        return type;
+    }
+
+    Function<Throwable, ? extends Throwable> getRethrowMethod() {
+        return rethrowMethod;
+    }
+
+    Consumer<Throwable> getErrorConsumer() {
+        return errorConsumer;
+    }
+
+    /**
+     * Exceptions registered as used after this handler, which are visible to the next one in chain.
+     *
+     * @return immutable set of used exceptions.
+     */
+    Set<Class> nextUsedExceptions() {
+        if (!type.registersUsed() || expectingExceptions.length == 0) {
+            return usedExceptions;
+        }
+
+        Set<Class> next = new HashSet<>(usedExceptions);
+        Collections.addAll(next, expectingExceptions);
+        return Collections.unmodifiableSet(next);
+    }
+
+    /**
+     * Expected exceptions which were already handled before in chain.
+     *
+     * @return set of duplicated exceptions, empty if there are none.
+     */
+    Set<Class> duplicatedExceptions() {
+        Set<Class> duplicated = new HashSet<>();
+        for (Class cl : expectingExceptions) {
+            if (usedExceptions.contains(cl)) {
+                duplicated.add(cl);
+            }
+        }
+        return duplicated;
+    }
+
+    /**
+     * Check that given exception class is matched by this handler.
+     *
+     * @param errorClass class of thrown exception.
+     * @return flag that handler have to be applied.
+     */
+    boolean matches(Class errorClass) {
+        switch (type.getMatch()) {
+            case EXACT_OR_ANY:
+                return expectingExceptions.length == 0 || matchesExactly(errorClass);
+            case EXACT:
+                return matchesExactly(errorClass);
+            case PARENT:
+                return !expectingExceptions[0].equals(errorClass)
+                        && ((Class<?>) expectingExceptions[0]).isAssignableFrom(errorClass)
+                        && !usedExceptions.contains(errorClass);
+            case UNHANDLED:
+                return !usedExceptions.contains(errorClass);
+            default:
+                throw new IllegalStateException("Unknown match: " + type.getMatch());
+        }
+    }
+
+    /**
+     * Check that given exception class is one of expected ones.
+     */
+    private boolean matchesExactly(Class errorClass) {
+        for (Class cl : expectingExceptions) {
+            if (cl.equals(errorClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
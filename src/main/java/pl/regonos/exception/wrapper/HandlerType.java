@@ -0,0 +1,112 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Handler methods available in {@link ExceptionWrapper} and {@link ExceptionPolicy}.
+ * Each constant describes how the thrown exception is matched and what is done after match.
+ * Handler types are also keys of {@link ExceptionMetrics}.
+ *
+ * @author Igor Maculewicz
+ */
+public enum HandlerType {
+
+    AND_THROW_FOR(Match.EXACT, Action.THROW, false),
+    AND_RETHROW_FOR(Match.EXACT, Action.RETHROW, false),
+    AND_RETHROW_FOR_PARENT(Match.PARENT, Action.RETHROW, false),
+    AND_INVOKE_FOR(Match.EXACT, Action.INVOKE, false),
+    AND_INVOKE_FOR_PARENT(Match.PARENT, Action.INVOKE, false),
+    AND_RETHROW_FOR_CAUSE(Match.CAUSE, Action.RETHROW, false),
+    AND_INVOKE_FOR_CAUSE(Match.CAUSE, Action.INVOKE, false),
+    AND_RETRY_FOR(Match.EXACT_OR_ANY, Action.RETRY, false),
+    AND_RECOVER_FOR(Match.EXACT, Action.RECOVER, false),
+    AND_RECOVER_FOR_PARENT(Match.PARENT, Action.RECOVER, false),
+    THEN_RETHROW_FOR(Match.EXACT_OR_ANY, Action.RETHROW, true),
+    THEN_RETHROW_FOR_PARENT(Match.PARENT, Action.RETHROW, true),
+    THEN_RETHROW_FOR_UNHANDLED(Match.UNHANDLED, Action.RETHROW, true),
+    THEN_INVOKE_FOR(Match.EXACT_OR_ANY, Action.INVOKE, true),
+    THEN_INVOKE_FOR_PARENT(Match.PARENT, Action.INVOKE, true),
+    THEN_INVOKE_FOR_UNHANDLED(Match.UNHANDLED, Action.INVOKE, true),
+    THEN_RETHROW_FOR_CAUSE(Match.CAUSE, Action.RETHROW, true),
+    THEN_INVOKE_FOR_CAUSE(Match.CAUSE, Action.INVOKE, true),
+    THEN_RECOVER_FOR(Match.EXACT_OR_ANY, Action.RECOVER, true),
+    THEN_RECOVER_FOR_PARENT(Match.PARENT, Action.RECOVER, true),
+    THEN_RECOVER_FOR_UNHANDLED(Match.UNHANDLED, Action.RECOVER, true),
+    THEN_TO_RESULT(Match.EXACT_OR_ANY, Action.RECOVER, true);
+
+    private final Match match;
+    private final Action action;
+    private final boolean finalizer;
+
+    HandlerType(Match match, Action action, boolean finalizer) {
+        this.match = match;
+        this.action = action;
+        this.finalizer = finalizer;
+    }
+
+    Match getMatch() {
+        return match;
+    }
+
+    Action getAction() {
+        return action;
+    }
+
+    boolean isFinalizer() {
+        return finalizer;
+    }
+
+    /**
+     * Registers expected exceptions as used, so later *ForParent and *ForUnhandled handlers skip them.
+     *
+     * @return flag that handler registers its exceptions as used.
+     */
+    boolean registersUsed() {
+        return this == AND_THROW_FOR || this == AND_RETHROW_FOR || this == THEN_RETHROW_FOR || this == THEN_INVOKE_FOR
+                || this == AND_RETHROW_FOR_CAUSE || this == THEN_RETHROW_FOR_CAUSE || this == THEN_INVOKE_FOR_CAUSE
+                || this == AND_RECOVER_FOR || this == THEN_RECOVER_FOR;
+    }
+
+    /**
+     * Unmatched runtime exceptions escape from finalizers, except the *ForUnhandled ones.
+     *
+     * @return flag that unmatched exceptions are escaped.
+     */
+    boolean escapesUnmatched() {
+        return finalizer && match != Match.UNHANDLED;
+    }
+
+    enum Match {
+        /**
+         * Exception class is equal to one of expected classes.
+         */
+        EXACT,
+        /**
+         * Like {@link #EXACT}, but an empty list of expected classes matches any exception.
+         */
+        EXACT_OR_ANY,
+        /**
+         * Exception class is a child of expected class and it wasn't handled before in chain.
+         */
+        PARENT,
+        /**
+         * Exception class wasn't handled before in chain.
+         */
+        UNHANDLED,
+        /**
+         * Exception or any of its causes is equal to one of expected classes.
+         * Depends on the exception instance, so it is not supported by {@link ExceptionPolicy}.
+         */
+        CAUSE
+    }
+
+    enum Action {
+        THROW, RETHROW, INVOKE,
+        /**
+         * Executes code again. Retries are done before the rest of chain, so they never reach compiled policy stages.
+         */
+        RETRY,
+        /**
+         * Replaces exception with a value of wrapped type. Supported only by wrappers, which know that type.
+         */
+        RECOVER
+    }
+}
@@ -0,0 +1,220 @@
+package pl.regonos.exception.wrapper;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hedged execution of a supplier. The first attempt is started immediately, the second one when the first did not
+ * finish within hedge delay, or as soon as the first fails. The first successful attempt wins and the other one is
+ * cancelled by interrupt. Only when every attempt fails, the error of the first one is thrown, errors of the other
+ * attempts are dropped, so exceptions thrown by supplier are never modified.
+ * Hedge delay is driven by the shared {@link WheelTimer}, which only wakes up the waiting caller. The caller submits the
+ * second attempt, so a blocking or rejecting executor never stalls the timer thread. The timer drops cancelled timeouts
+ * only when it reaches their bucket, so its timeout is detached from the hedge once the caller returns, and a fast call
+ * does not keep the supplier and its result reachable until then.
+ *
+ * @param <T> every object which will be returned from supplier.
+ * @author Igor Maculewicz
+ */
+final class Hedge<T> {
+
+    private static final int MAX_ATTEMPTS = 2;
+
+    private final ThrowingSupplier<T> supplier;
+    private final Executor executor;
+    private final Thread caller = Thread.currentThread();
+    private final HedgeTimeout timeout;
+
+    private final CompletableFuture<T> outcome = new CompletableFuture<>();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicReferenceArray<FutureTask<Void>> attempts = new AtomicReferenceArray<>(MAX_ATTEMPTS);
+    private final AtomicReferenceArray<Throwable> errors = new AtomicReferenceArray<>(MAX_ATTEMPTS);
+    private volatile boolean hedgeDue;
+
+    private Hedge(ThrowingSupplier<T> supplier, Executor executor, long hedgeAtNanos) {
+        this.supplier = supplier;
+        this.executor = executor;
+        this.timeout = new HedgeTimeout(this, hedgeAtNanos);
+    }
+
+    /**
+     * Decorates given supplier, so its every execution is hedged.
+     *
+     * @param supplier   which contains code that have to be hedged, it have to be idempotent.
+     * @param hedgeAfter delay after which the second attempt is started.
+     * @param executor   executor which runs attempts, it must not run them in the submitting thread.
+     * @param <T>        every object which will be returned from supplier.
+     * @return supplier which waits for the first successful attempt.
+     */
+    static <T> ThrowingSupplier<T> decorate(ThrowingSupplier<T> supplier, Duration hedgeAfter, Executor executor) {
+        if (hedgeAfter.isNegative()) {
+            throw new IllegalArgumentException("Hedge delay cannot be negative, was: " + hedgeAfter);
+        }
+        long hedgeAfterNanos = hedgeAfter.toNanos();
+
+        return () -> new Hedge<>(supplier, executor, System.nanoTime() + hedgeAfterNanos).await();
+    }
+
+    /**
+     * Starts the first attempt and waits for the outcome, starting the second one when hedge delay expires.
+     * Interrupted caller cancels all attempts and fails with {@link InterruptedException}, its interrupt flag is cleared
+     * like by any method which throws it.
+     *
+     * @return value of the first successful attempt.
+     * @throws Throwable error of the first attempt, if all of them failed.
+     */
+    private T await() throws Throwable {
+        startAttempt();
+        WheelTimer.shared().schedule(timeout);
+
+        try {
+            while (!outcome.isDone()) {
+                if (hedgeDue) {
+                    hedgeDue = false;
+                    startAttempt();
+                    continue;
+                }
+
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    cancelAttempts(-1);
+                    throw new InterruptedException("Interrupted while waiting for hedged attempts");
+                }
+            }
+        } finally {
+            timeout.detach();
+        }
+
+        try {
+            return outcome.get();
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    /**
+     * Check that the second attempt will not be needed.
+     */
+    private boolean isSettled() {
+        return outcome.isDone() || started.get() >= MAX_ATTEMPTS;
+    }
+
+    /**
+     * Wakes up the caller to start the second attempt. Runs on the timer thread, which must never block on the executor.
+     */
+    private void hedgeDue() {
+        hedgeDue = true;
+        LockSupport.unpark(caller);
+    }
+
+    private void startAttempt() {
+        int attempt;
+        do {
+            attempt = started.get();
+            if (attempt >= MAX_ATTEMPTS || outcome.isDone()) {
+                return;
+            }
+        } while (!started.compareAndSet(attempt, attempt + 1));
+
+        int index = attempt;
+        FutureTask<Void> task = new FutureTask<>(() -> run(index), null);
+        attempts.set(index, task);
+        if (outcome.isDone()) {
+            //Winner may have cancelled attempts before this one was published
+            return;
+        }
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            onFailure(index, ex);
+        }
+    }
+
+    private void run(int attempt) {
+        T value;
+        try {
+            value = supplier.get();
+        } catch (Throwable ex) {
+            onFailure(attempt, ex);
+            return;
+        }
+
+        if (outcome.complete(value)) {
+            LockSupport.unpark(caller);
+            cancelAttempts(attempt);
+        }
+    }
+
+    /**
+     * Records failed attempt. Starts the next one if there is any, otherwise completes with the error of the first attempt.
+     */
+    private void onFailure(int attempt, Throwable error) {
+        if (outcome.isDone()) {
+            return;
+        }
+
+        errors.set(attempt, error);
+        if (failed.incrementAndGet() < MAX_ATTEMPTS) {
+            startAttempt();
+            return;
+        }
+
+        //Errors belong to the supplier and may be shared, so they are not linked together
+        if (outcome.completeExceptionally(errors.get(0))) {
+            LockSupport.unpark(caller);
+        }
+    }
+
+    /**
+     * Interrupts attempts other than the winning one.
+     */
+    private void cancelAttempts(int winner) {
+        for (int i = 0; i < MAX_ATTEMPTS; i++) {
+            FutureTask<Void> task = attempts.get(i);
+            if (i != winner && Objects.nonNull(task)) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Timeout of hedge delay, which references the hedge only until the caller returns.
+     */
+    private static final class HedgeTimeout extends WheelTimer.Timeout {
+
+        private volatile Hedge<?> hedge;
+
+        private HedgeTimeout(Hedge<?> hedge, long deadlineNanos) {
+            super(deadlineNanos);
+            this.hedge = hedge;
+        }
+
+        private void detach() {
+            hedge = null;
+        }
+
+        @Override
+        boolean isCancelled() {
+            Hedge<?> current = hedge;
+            return Objects.isNull(current) || current.isSettled();
+        }
+
+        @Override
+        void expire() {
+            Hedge<?> current = hedge;
+            if (Objects.nonNull(current)) {
+                current.hedgeDue();
+            }
+        }
+    }
+}
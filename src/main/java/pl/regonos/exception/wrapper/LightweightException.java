@@ -0,0 +1,41 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Unchecked exception which does not capture its stack trace. Translated exceptions usually keep the original one as
+ * a cause, which already carries the stack, so capturing it again only burns CPU under failure storms.
+ * Extend this class to make own translated exceptions stackless, e.g. {@code andRethrowFor(MyException::new, IOException.class)}.
+ *
+ * @author Igor Maculewicz
+ */
+public class LightweightException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates exception without cause.
+     *
+     * @param message detail message.
+     */
+    public LightweightException(String message) {
+        super(message, null, true, false);
+    }
+
+    /**
+     * Creates exception translated from given one.
+     *
+     * @param cause original exception, message of the cause is used as detail message.
+     */
+    public LightweightException(Throwable cause) {
+        super(cause == null ? null : cause.toString(), cause, true, false);
+    }
+
+    /**
+     * Creates exception translated from given one.
+     *
+     * @param message detail message.
+     * @param cause   original exception.
+     */
+    public LightweightException(String message, Throwable cause) {
+        super(message, cause, true, false);
+    }
+}
@@ -0,0 +1,275 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Outcome of handled code, either {@link Success} with a value or {@link Failure} with an exception.
+ * Result can be passed between layers and handled where it is needed, without rethrowing the exception on the way.
+ * <pre>{@code
+ * Result<String> result = ExceptionWrapper.handle(() -> read())
+ *         .andRethrowFor(IllegalStateException::new, TimeoutException.class)
+ *         .toResult(IOException.class);
+ * ...
+ * String value = result.toWrapper()
+ *         .thenRecoverFor(ex -> DEFAULT, IOException.class);
+ * }</pre>
+ * Successful results of null and of {@link Boolean} values are shared singletons, so they are never allocated.
+ *
+ * @param <T> type of value.
+ * @author Igor Maculewicz
+ */
+public abstract class Result<T> {
+
+    private static final Success<?> NULL = new Success<>(null);
+    private static final Success<Boolean> TRUE = new Success<>(Boolean.TRUE);
+    private static final Success<Boolean> FALSE = new Success<>(Boolean.FALSE);
+
+    /**
+     * Package private constructor, only {@link Success} and {@link Failure} are allowed.
+     */
+    Result() {
+    }
+
+    /**
+     * Creates successful result.
+     *
+     * @param value value of result, can be null.
+     * @param <T>   type of value.
+     * @return successful result, shared for null and {@link Boolean} values.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Result<T> success(T value) {
+        if (Objects.isNull(value)) {
+            return (Result<T>) NULL;
+        }
+        if (value instanceof Boolean) {
+            return (Result<T>) ((Boolean) value ? TRUE : FALSE);
+        }
+        return new Success<>(value);
+    }
+
+    /**
+     * Creates failed result.
+     *
+     * @param error exception of result.
+     * @param <T>   type of value.
+     * @return failed result.
+     */
+    public static <T> Result<T> failure(@NonNull Throwable error) {
+        return new Failure<>(error);
+    }
+
+    /**
+     * Executes given supplier and captures its outcome, without any handlers.
+     *
+     * @param supplier which contains code that have to be executed.
+     * @param <T>      type of value.
+     * @return outcome of supplier.
+     */
+    public static <T> Result<T> of(@NonNull ThrowingSupplier<T> supplier) {
+        T value;
+        try {
+            value = supplier.get();
+        } catch (Throwable ex) {
+            return failure(ex);
+        }
+        return success(value);
+    }
+
+    /**
+     * Check that result is successful.
+     *
+     * @return flag that result is successful.
+     */
+    public abstract boolean isSuccess();
+
+    /**
+     * Check that result is failed.
+     *
+     * @return flag that result is failed.
+     */
+    public boolean isFailure() {
+        return !isSuccess();
+    }
+
+    /**
+     * Value of successful result.
+     *
+     * @return value, or null if result is failed.
+     */
+    public abstract T getValue();
+
+    /**
+     * Exception of failed result.
+     *
+     * @return exception, or null if result is successful.
+     */
+    public abstract Throwable getError();
+
+    /**
+     * Value of successful result, or given value if result is failed.
+     *
+     * @param other value returned for failed result.
+     * @return value of result or given value.
+     */
+    public T getOrElse(T other) {
+        return isSuccess() ? getValue() : other;
+    }
+
+    /**
+     * Value of successful result, or value returned by given method if result is failed.
+     *
+     * @param recoverMethod method which will return a value instead of exception.
+     * @return value of result or recovered value.
+     */
+    public T getOrElseGet(@NonNull Function<Throwable, ? extends T> recoverMethod) {
+        return isSuccess() ? getValue() : recoverMethod.apply(getError());
+    }
+
+    /**
+     * Value of successful result, or rethrow exception of failed result to given one.
+     *
+     * @param rethrowMethod method which will rethrow to given exception.
+     * @param <X>           {@link Throwable} which will be thrown for failed result.
+     * @return value of result.
+     * @throws X {@link Throwable} which will be thrown for failed result.
+     */
+    public <X extends Throwable> T getOrThrow(@NonNull Function<Throwable, X> rethrowMethod) throws X {
+        if (isSuccess()) {
+            return getValue();
+        }
+        throw rethrowMethod.apply(getError());
+    }
+
+    /**
+     * Maps value of successful result. Exception thrown by mapper becomes a failed result.
+     *
+     * @param mapper method which maps the value.
+     * @param <R>    type of mapped value.
+     * @return mapped result, or the same failed result.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Result<R> map(@NonNull ThrowingFunction<? super T, ? extends R> mapper) {
+        if (isFailure()) {
+            return (Result<R>) this;
+        }
+
+        R mapped;
+        try {
+            mapped = mapper.apply(getValue());
+        } catch (Throwable ex) {
+            return failure(ex);
+        }
+        return success(mapped);
+    }
+
+    /**
+     * Value of successful result as {@link Optional}.
+     *
+     * @return optional value, empty for failed result and for null value.
+     */
+    public Optional<T> toOptional() {
+        return isSuccess() ? Optional.ofNullable(getValue()) : Optional.empty();
+    }
+
+    /**
+     * Creates wrapper of this result, so the exception can be handled with the usual chain where it is needed.
+     *
+     * @return instance of created {@link ExceptionWrapper}.
+     */
+    public ExceptionWrapper<T> toWrapper() {
+        return new ExceptionWrapper<>(getValue(), getError());
+    }
+
+    /**
+     * Successful result.
+     *
+     * @param <T> type of value.
+     */
+    public static final class Success<T> extends Result<T> {
+
+        private final T value;
+
+        private Success(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public Throwable getError() {
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Success && Objects.equals(value, ((Success<?>) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return "Success(" + value + ")";
+        }
+    }
+
+    /**
+     * Failed result.
+     *
+     * @param <T> type of value.
+     */
+    public static final class Failure<T> extends Result<T> {
+
+        private final Throwable error;
+
+        private Failure(Throwable error) {
+            this.error = error;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public T getValue() {
+            return null;
+        }
+
+        @Override
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Failure && error.equals(((Failure<?>) o).error);
+        }
+
+        @Override
+        public int hashCode() {
+            return error.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return "Failure(" + error + ")";
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry handler, shared by {@link AbstractExceptionWrapper} and {@link ExceptionPolicy}.
+ * Retries are done before the rest of the chain, which then handles only the last failure.
+ *
+ * @author Igor Maculewicz
+ */
+final class Retry {
+
+    private final int maxAttempts;
+    private final Backoff backoff;
+    private final RetryBudget budget;
+    private final Class[] expectingExceptions;
+
+    Retry(int maxAttempts, Backoff backoff, RetryBudget budget, Class[] expectingExceptions) {
+        this.maxAttempts = checkMaxAttempts(maxAttempts);
+        this.backoff = backoff;
+        this.budget = budget;
+        this.expectingExceptions = expectingExceptions.clone();
+    }
+
+    /**
+     * Validates maximal number of attempts, including the first one.
+     *
+     * @param maxAttempts maximal number of attempts.
+     * @return given number of attempts.
+     */
+    static int checkMaxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is required, was: " + maxAttempts);
+        }
+        return maxAttempts;
+    }
+
+    /**
+     * Decides whether failed attempt is retried and waits before the retry.
+     * If waiting thread is interrupted, the interrupt flag is restored and nothing is retried.
+     *
+     * @param error              exception thrown by failed attempt.
+     * @param attempt            number of failed attempt, starting from 1.
+     * @param previousDelayNanos delay before previous retry, 0 before the first one.
+     * @return delay waited before the retry in nanoseconds, or -1 if failed attempt is not retried.
+     */
+    long pause(Throwable error, int attempt, long previousDelayNanos) {
+        if (attempt >= maxAttempts || !matches(error.getClass()) || !budget.tryAcquire()) {
+            return -1L;
+        }
+
+        ExceptionMetrics.record(error.getClass(), HandlerType.AND_RETRY_FOR);
+        FlightEvents.handlerMatched(error.getClass(), HandlerType.AND_RETRY_FOR);
+
+        long delay = Math.max(backoff.nextDelayNanos(attempt, previousDelayNanos), 0L);
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return -1L;
+            }
+        }
+
+        return delay;
+    }
+
+    /**
+     * Check that exception class is one of expected ones. An empty list matches any exception.
+     */
+    private boolean matches(Class errorClass) {
+        if (expectingExceptions.length == 0) {
+            return true;
+        }
+        for (Class cl : expectingExceptions) {
+            if (cl.equals(errorClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
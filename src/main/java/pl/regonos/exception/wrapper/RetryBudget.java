@@ -0,0 +1,82 @@
+package pl.regonos.exception.wrapper;
+
+import lombok.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free limit of retries shared by many executions, e.g. by all executions of one {@link ExceptionPolicy}.
+ * During an outage every call fails, so without a budget retries multiply load of the failing service.
+ * Budget allows a burst of given number of retries, which is refilled evenly during given period.
+ * <pre>{@code
+ * RetryBudget budget = RetryBudget.of(100, Duration.ofSeconds(1));
+ * }</pre>
+ * State is a single theoretical arrival time of the next retry (GCRA), so acquiring is one CAS and never allocates.
+ *
+ * @author Igor Maculewicz
+ */
+public final class RetryBudget {
+
+    private static final RetryBudget UNLIMITED = new RetryBudget(0L, 0L);
+
+    private final long emissionIntervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+
+    private RetryBudget(long emissionIntervalNanos, long toleranceNanos) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.toleranceNanos = toleranceNanos;
+    }
+
+    /**
+     * Budget which never denies retry.
+     *
+     * @return unlimited budget.
+     */
+    public static RetryBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    /**
+     * Budget of given number of retries per given period.
+     *
+     * @param retries maximal number of retries in period, also the maximal burst.
+     * @param period  period in which budget is refilled.
+     * @return new budget.
+     */
+    public static RetryBudget of(int retries, @NonNull Duration period) {
+        if (retries < 1) {
+            throw new IllegalArgumentException("Budget have to allow at least one retry, was: " + retries);
+        }
+        long emissionIntervalNanos = period.toNanos() / retries;
+        if (emissionIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Period is too short for " + retries + " retries, was: " + period);
+        }
+        return new RetryBudget(emissionIntervalNanos, period.toNanos() - emissionIntervalNanos);
+    }
+
+    /**
+     * Takes one retry from budget.
+     *
+     * @return flag that retry is allowed.
+     */
+    public boolean tryAcquire() {
+        if (this == UNLIMITED) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = arrival - now < 0 ? now : arrival;
+
+            if (start - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Consumer that can throw a checked exception.
+ *
+ * @param <T> Any object that will be passed to consumer.
+ */
+@FunctionalInterface
+public interface ThrowingConsumer<T> {
+
+    void accept(T t) throws Throwable;
+}
@@ -0,0 +1,11 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Supplier of double values that can throw a checked exception.
+ * Specialization of {@link ThrowingSupplier}, which does not box returned value.
+ */
+@FunctionalInterface
+public interface ThrowingDoubleSupplier {
+
+    double getAsDouble() throws Throwable;
+}
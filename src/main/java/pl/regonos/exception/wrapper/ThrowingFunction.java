@@ -0,0 +1,13 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Function that can throw a checked exception.
+ *
+ * @param <T> Any object that will be passed to function.
+ * @param <R> Any object that will be returned from function.
+ */
+@FunctionalInterface
+public interface ThrowingFunction<T, R> {
+
+    R apply(T t) throws Throwable;
+}
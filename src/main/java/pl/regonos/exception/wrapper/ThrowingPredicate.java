@@ -0,0 +1,12 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Predicate that can throw a checked exception.
+ *
+ * @param <T> Any object that will be tested by predicate.
+ */
+@FunctionalInterface
+public interface ThrowingPredicate<T> {
+
+    boolean test(T t) throws Throwable;
+}
@@ -0,0 +1,36 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Access to virtual threads. This is the variant for runtimes older than Java 21, which do not have them.
+ * The multi-release jar replaces it with {@code META-INF/versions/21/pl/regonos/exception/wrapper/VirtualThreads.class}.
+ *
+ * @author Igor Maculewicz
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check that virtual threads can be started on current runtime.
+     *
+     * @return flag that virtual threads are available.
+     */
+    static boolean isAvailable() {
+        return false;
+    }
+
+    /**
+     * Starts given task on a new platform thread, daemon like a virtual one, because virtual threads are not available.
+     * Callers check {@link #isAvailable()} first and run cheap tasks in the calling thread instead.
+     *
+     * @param task task to run.
+     * @return started thread.
+     */
+    static Thread start(Runnable task) {
+        Thread thread = new Thread(task, "exception-wrapper");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,159 @@
+package pl.regonos.exception.wrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed wheel timer shared by all timeouts of the library, so a deadline costs one small object instead of a thread
+ * or a {@link java.util.concurrent.ScheduledFuture}. Single daemon thread advances the wheel every tick and expires due timeouts,
+ * so precision of timeouts is one tick. Timeouts are handed over through a lock-free queue, cancelled ones are dropped lazily.
+ *
+ * @author Igor Maculewicz
+ */
+final class WheelTimer implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WheelTimer.class);
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final int WHEEL_SIZE = 512;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final List<Timeout>[] wheel;
+    private final long startNanos;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    private WheelTimer() {
+        this.wheel = new List[WHEEL_SIZE];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Shared timer, started on first use.
+     *
+     * @return shared timer.
+     */
+    static WheelTimer shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Schedules given timeout. It is expired by the timer thread, unless it is cancelled before.
+     *
+     * @param timeout timeout to schedule.
+     */
+    void schedule(Timeout timeout) {
+        pending.add(timeout);
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            waitForNextTick();
+            transferPending();
+            expireBucket(wheel[(int) (tick % WHEEL_SIZE)]);
+            tick++;
+        }
+    }
+
+    private void waitForNextTick() {
+        long deadline = startNanos + (tick + 1) * TICK_NANOS;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long expirationTick = Math.max((timeout.deadlineNanos - startNanos + TICK_NANOS - 1) / TICK_NANOS, tick);
+            timeout.remainingRounds = (expirationTick - tick) / WHEEL_SIZE;
+            wheel[(int) (expirationTick % WHEEL_SIZE)].add(timeout);
+        }
+    }
+
+    private void expireBucket(List<Timeout> bucket) {
+        for (Iterator<Timeout> iterator = bucket.iterator(); iterator.hasNext(); ) {
+            Timeout timeout = iterator.next();
+
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                expire(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Expires given timeout. Any failure is only logged, the timer thread is shared by all timeouts, so it has to survive it.
+     */
+    private void expire(Timeout timeout) {
+        try {
+            timeout.expire();
+        } catch (Throwable ex) {
+            LOGGER.error("Expiration of timeout failed", ex);
+        }
+    }
+
+    /**
+     * Single timeout. Implementations decide what cancellation and expiration mean.
+     */
+    abstract static class Timeout {
+
+        private final long deadlineNanos;
+        /**
+         * Full revolutions of the wheel left before expiration, accessed only by the timer thread.
+         */
+        private long remainingRounds;
+
+        Timeout(long deadlineNanos) {
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Check that timeout is not needed anymore. Called by the timer thread only.
+         *
+         * @return flag that timeout can be dropped.
+         */
+        abstract boolean isCancelled();
+
+        /**
+         * Called by the timer thread when the deadline passes, it must not block.
+         */
+        abstract void expire();
+    }
+
+    /**
+     * Starts the timer thread on first use.
+     */
+    private static final class Holder {
+
+        private static final WheelTimer INSTANCE = start();
+
+        private static WheelTimer start() {
+            WheelTimer timer = new WheelTimer();
+            Thread thread = new Thread(timer, "exception-wrapper-timer");
+            thread.setDaemon(true);
+            thread.start();
+            return timer;
+        }
+    }
+}
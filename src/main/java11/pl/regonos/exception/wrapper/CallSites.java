@@ -0,0 +1,38 @@
+package pl.regonos.exception.wrapper;
+
+/**
+ * Finds code which called the library, Java 11 layer of the multi-release jar.
+ * Only frames up to the call site are walked, instead of capturing the whole stack trace.
+ *
+ * @author Igor Maculewicz
+ */
+final class CallSites {
+
+    private static final String LIBRARY_PACKAGE = CallSites.class.getPackageName() + ".";
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private CallSites() {
+    }
+
+    /**
+     * Finds the first stack frame outside of this library and of the JDK. Frames of the JDK are skipped, so handlers run
+     * by {@link java.util.concurrent.CompletableFuture} stages are not attributed to its internals.
+     *
+     * @return call site, or null if it cannot be found, e.g. for handlers run by asynchronous stage on a pool thread.
+     */
+    static StackTraceElement find() {
+        return WALKER.walk(frames -> frames
+                .filter(frame -> isCallSite(frame.getClassName()))
+                .findFirst()
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .orElse(null));
+    }
+
+    private static boolean isCallSite(String className) {
+        return !className.startsWith(LIBRARY_PACKAGE)
+                && !className.startsWith("java.")
+                && !className.startsWith("javax.")
+                && !className.startsWith("jdk.")
+                && !className.startsWith("sun.");
+    }
+}
@@ -0,0 +1,163 @@
+package pl.regonos.exception.wrapper;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Hooks emitting JDK Flight Recorder events, Java 11 layer of the multi-release jar, the first release with {@code jdk.jfr}.
+ * Every hook checks that its event type is enabled before creating the event, so without recording it costs a single check.
+ * If the runtime is built without {@code jdk.jfr} module, hooks do nothing.
+ *
+ * @author Igor Maculewicz
+ */
+final class FlightEvents {
+
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private FlightEvents() {
+    }
+
+    /**
+     * Starts timing of supplier execution.
+     *
+     * @return execution token passed to {@link #endExecution(Object, Throwable)}, null if execution is not recorded.
+     */
+    static Object beginExecution() {
+        if (!AVAILABLE || !Types.EXECUTION.isEnabled()) {
+            return null;
+        }
+        SupplierExecutionEvent event = new SupplierExecutionEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends timing of supplier execution.
+     *
+     * @param execution token returned by {@link #beginExecution()}.
+     * @param error     exception thrown by supplier, or null.
+     */
+    static void endExecution(Object execution, Throwable error) {
+        if (execution == null) {
+            return;
+        }
+        SupplierExecutionEvent event = (SupplierExecutionEvent) execution;
+        event.end();
+        if (event.shouldCommit()) {
+            event.exceptionClass = error == null ? null : error.getClass();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records exception captured from supplier.
+     *
+     * @param error captured exception.
+     */
+    static void exceptionCaptured(Throwable error) {
+        if (AVAILABLE && Types.CAPTURED.isEnabled()) {
+            ExceptionCapturedEvent event = new ExceptionCapturedEvent();
+            event.exceptionClass = error.getClass();
+            event.message = error.getMessage();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records handler matched for exception.
+     *
+     * @param errorClass class of matched exception.
+     * @param type       type of matched handler.
+     */
+    static void handlerMatched(Class<?> errorClass, HandlerType type) {
+        if (AVAILABLE && Types.MATCHED.isEnabled()) {
+            HandlerMatchedEvent event = new HandlerMatchedEvent();
+            event.exceptionClass = errorClass;
+            event.handler = type.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records exception thrown by handler.
+     *
+     * @param error    matched exception.
+     * @param rethrown exception thrown by handler, the same as matched one for andThrowFor.
+     * @param type     type of handler.
+     */
+    static void exceptionRethrown(Throwable error, Throwable rethrown, HandlerType type) {
+        if (AVAILABLE && Types.RETHROWN.isEnabled()) {
+            ExceptionRethrownEvent event = new ExceptionRethrownEvent();
+            event.exceptionClass = error.getClass();
+            event.rethrownClass = rethrown == null ? null : rethrown.getClass();
+            event.handler = type.name();
+            event.commit();
+        }
+    }
+
+    /**
+     * Event types, in a holder class so {@code jdk.jfr} classes are loaded only when the module is present.
+     */
+    private static final class Types {
+
+        private static final EventType EXECUTION = EventType.getEventType(SupplierExecutionEvent.class);
+        private static final EventType CAPTURED = EventType.getEventType(ExceptionCapturedEvent.class);
+        private static final EventType MATCHED = EventType.getEventType(HandlerMatchedEvent.class);
+        private static final EventType RETHROWN = EventType.getEventType(ExceptionRethrownEvent.class);
+    }
+
+    @Name("pl.regonos.exception.wrapper.SupplierExecution")
+    @Label("Wrapped Supplier Execution")
+    @Category("Exception Wrapper")
+    @StackTrace(false)
+    @Threshold("10 ms")
+    static final class SupplierExecutionEvent extends Event {
+
+        @Label("Exception Class")
+        Class<?> exceptionClass;
+    }
+
+    @Name("pl.regonos.exception.wrapper.ExceptionCaptured")
+    @Label("Exception Captured")
+    @Category("Exception Wrapper")
+    static final class ExceptionCapturedEvent extends Event {
+
+        @Label("Exception Class")
+        Class<?> exceptionClass;
+
+        @Label("Message")
+        String message;
+    }
+
+    @Name("pl.regonos.exception.wrapper.HandlerMatched")
+    @Label("Handler Matched")
+    @Category("Exception Wrapper")
+    static final class HandlerMatchedEvent extends Event {
+
+        @Label("Exception Class")
+        Class<?> exceptionClass;
+
+        @Label("Handler")
+        String handler;
+    }
+
+    @Name("pl.regonos.exception.wrapper.ExceptionRethrown")
+    @Label("Exception Rethrown")
+    @Category("Exception Wrapper")
+    static final class ExceptionRethrownEvent extends Event {
+
+        @Label("Exception Class")
+        Class<?> exceptionClass;
+
+        @Label("Rethrown Class")
+        Class<?> rethrownClass;
+
+        @Label("Handler")
+        String handler;
+    }
+}
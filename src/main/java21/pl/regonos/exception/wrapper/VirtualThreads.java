@@ -0,0 +1,40 @@
+package pl.regonos.exception.wrapper;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads, Java 21 layer of the multi-release jar.
+ *
+ * @author Igor Maculewicz
+ */
+final class VirtualThreads {
+
+    /**
+     * Unlike {@link Thread.Builder}, thread factory is safe to use from many threads.
+     */
+    private static final ThreadFactory FACTORY = Thread.ofVirtual().name("exception-wrapper-", 0).factory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check that virtual threads can be started on current runtime.
+     *
+     * @return flag that virtual threads are available.
+     */
+    static boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Starts given task on a new virtual thread.
+     *
+     * @param task task to run.
+     * @return started thread.
+     */
+    static Thread start(Runnable task) {
+        Thread thread = FACTORY.newThread(task);
+        thread.start();
+        return thread;
+    }
+}
@@ -0,0 +1,83 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.Result;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AsyncExceptionWrapperTest {
+
+    private static final String GIVEN_STRING = "string";
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        dummyList = new ArrayList<>();
+    }
+
+    @Test
+    public void handleAsync_givenCorrectValue_shouldCompleteWithGivenValue() {
+        CompletableFuture<String> result = ExceptionWrapper.handleAsync(() -> GIVEN_STRING, DIRECT_EXECUTOR)
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeForUnhandled(dummyList::add);
+
+        assertThat(result.join()).isEqualTo(GIVEN_STRING);
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void andRethrowFor_givenWrappedCheckedException_shouldRethrowForUnwrappedException() {
+        CompletableFuture<String> result = ExceptionWrapper.<String>handleAsync(() -> {
+            throw new CompletionException(new ExecutionException(new IOException()));
+        }, DIRECT_EXECUTOR)
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeForUnhandled(dummyList::add);
+
+        try {
+            result.join();
+        } catch (CompletionException ex) {
+            assertThat(ex.getCause()).isInstanceOf(IllegalStateException.class);
+            assertThat(ex.getCause().getCause()).isInstanceOf(IOException.class);
+        }
+        assertThat(result.isCompletedExceptionally()).isTrue();
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void thenInvokeFor_givenFailedStage_shouldExecuteCodeForGivenException() {
+        CompletableFuture<String> stage = new CompletableFuture<>();
+        CompletableFuture<String> result = ExceptionWrapper.handleAsync(stage)
+                .thenInvokeFor(dummyList::add, IOException.class);
+
+        assertThat(result.isDone()).isFalse();
+        stage.completeExceptionally(new IOException());
+
+        assertThat(result.join()).isNull();
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void toResult_givenNotExpectedCheckedException_shouldCompleteWithFailure() {
+        SQLException exception = new SQLException();
+
+        Result<String> result = ExceptionWrapper.<String>handleAsync(() -> {
+            throw exception;
+        }, DIRECT_EXECUTOR).toResult(IOException.class).join();
+
+        assertThat(result.isFailure()).isTrue();
+        assertThat(result.getError()).isSameAs(exception);
+    }
+}
@@ -0,0 +1,91 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Test;
+import pl.regonos.exception.wrapper.BatchResult;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.ThrowingSupplier;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BatchResultTest {
+
+    @Test
+    public void handleAll_givenCorrectValues_shouldReturnAllValues() {
+        BatchResult<Integer> result = ExceptionWrapper.handleAll(suppliers("1", "2", "3"));
+
+        assertThat(result.size()).isEqualTo(3);
+        assertThat(result.failureCount()).isEqualTo(0);
+        assertThat(result.getResults()).containsExactly(1, 2, 3);
+        assertThat(result.getError(0)).isNull();
+    }
+
+    @Test
+    public void handleAll_givenFailingSuppliers_shouldRecordFailures() {
+        BatchResult<Integer> result = ExceptionWrapper.handleAll(suppliers("1", "two", "3", "four"));
+
+        assertThat(result.failureCount()).isEqualTo(2);
+        assertThat(result.isFailure(1)).isTrue();
+        assertThat(result.isFailure(2)).isFalse();
+        assertThat(result.getFailures().nextSetBit(2)).isEqualTo(3);
+        assertThat(result.getError(1)).isInstanceOf(NumberFormatException.class);
+        assertThat(result.getResult(1)).isNull();
+        assertThat(result.getResult(2)).isEqualTo(3);
+    }
+
+    @Test
+    public void handleAll_givenPolicy_shouldRecordOnlyRethrownExceptionsAsFailures() {
+        List<Throwable> dummyList = new ArrayList<>();
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeFor(dummyList::add, NumberFormatException.class);
+
+        List<ThrowingSupplier<Integer>> suppliers = suppliers("1", "two");
+        suppliers.add(() -> {
+            throw new IOException();
+        });
+        BatchResult<Integer> result = ExceptionWrapper.handleAll(suppliers, policy);
+
+        assertThat(result.failureCount()).isEqualTo(1);
+        assertThat(result.isFailure(1)).isFalse();
+        assertThat(result.getError(2)).isInstanceOf(IllegalStateException.class);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void handleAllParallel_givenManySuppliers_shouldKeepSupplierOrder() {
+        List<ThrowingSupplier<Integer>> suppliers = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int value = i;
+            suppliers.add(() -> {
+                if (value % 10 == 0) {
+                    throw new IOException();
+                }
+                return value;
+            });
+        }
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .thenRethrowFor(IllegalStateException::new, IOException.class);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        BatchResult<Integer> result = ExceptionWrapper.handleAllParallel(suppliers, policy, pool);
+        pool.shutdown();
+
+        assertThat(result.size()).isEqualTo(10_000);
+        assertThat(result.failureCount()).isEqualTo(1_000);
+        assertThat(result.getResult(9_999)).isEqualTo(9_999);
+        assertThat(result.getError(9_990)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private List<ThrowingSupplier<Integer>> suppliers(String... values) {
+        List<ThrowingSupplier<Integer>> suppliers = new ArrayList<>();
+        Arrays.stream(values).forEach(value -> suppliers.add(() -> Integer.parseInt(value)));
+        return suppliers;
+    }
+}
@@ -0,0 +1,91 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.Bulkhead;
+import pl.regonos.exception.wrapper.BulkheadFullException;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkheadTest {
+
+    private static final String GIVEN_STRING = "string";
+
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        dummyList = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test
+    public void handleWithBulkhead_givenFreePermit_shouldReturnGivenValueAndReleasePermit() {
+        Bulkhead bulkhead = Bulkhead.builder().maxConcurrentCalls(1).build();
+
+        String result = ExceptionWrapper.handleWithBulkhead(() -> GIVEN_STRING, bulkhead)
+                .thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleWithBulkhead_givenFullBulkhead_shouldHandleBulkheadFullException() throws InterruptedException {
+        Bulkhead bulkhead = Bulkhead.builder().maxConcurrentCalls(1).build();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> ExceptionWrapper.handleWithBulkhead(() -> {
+            started.countDown();
+            finish.await();
+            return GIVEN_STRING;
+        }, bulkhead).thenInvokeFor(dummyList::add));
+        holder.start();
+        started.await();
+
+        ExceptionWrapper.handleWithBulkhead(() -> GIVEN_STRING, bulkhead)
+                .thenInvokeFor(dummyList::add, BulkheadFullException.class);
+
+        finish.countDown();
+        holder.join();
+
+        assertThat(dummyList).hasSize(1);
+        assertThat(dummyList.get(0)).isInstanceOf(BulkheadFullException.class);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleWithBulkhead_givenMaxWaitDuration_shouldQueueExcessCallers() throws InterruptedException {
+        Bulkhead bulkhead = Bulkhead.builder()
+                .maxConcurrentCalls(2)
+                .maxWaitDuration(Duration.ofSeconds(10))
+                .build();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> ExceptionWrapper.handleWithBulkhead(() -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                return inFlight.decrementAndGet();
+            }, bulkhead).thenInvokeFor(dummyList::add));
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(dummyList).isEmpty();
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        assertThat(bulkhead.getAvailablePermits()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,161 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.CachePolicy;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachePolicyTest {
+
+    private static final String GIVEN_STRING = "string";
+
+    private AtomicInteger executions;
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        executions = new AtomicInteger();
+        dummyList = new ArrayList<>();
+    }
+
+    @Test
+    public void handleCached_givenRepeatedKey_shouldExecuteSupplierOnce() {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder().build();
+
+        for (int i = 0; i < 3; i++) {
+            String result = ExceptionWrapper.handleCached(1, this::load, cache)
+                    .thenRethrowFor(IllegalStateException::new);
+            assertThat(result).isEqualTo(GIVEN_STRING);
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleCached_givenFailingSupplier_shouldHandleEveryFailure() {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder().build();
+
+        for (int i = 0; i < 3; i++) {
+            ExceptionWrapper.handleCached(1, () -> {
+                executions.incrementAndGet();
+                throw new IOException();
+            }, cache).thenInvokeFor(dummyList::add, IOException.class);
+        }
+
+        assertThat(executions.get()).isEqualTo(3);
+        assertThat(dummyList).hasSize(3);
+        assertThat(cache.estimatedSize()).isEqualTo(0L);
+    }
+
+    @Test
+    public void handleCached_givenExpiredEntry_shouldExecuteSupplierAgain() throws InterruptedException {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder()
+                .expireAfterWrite(Duration.ofMillis(1))
+                .build();
+
+        ExceptionWrapper.handleCached(1, this::load, cache).thenRethrowFor(IllegalStateException::new);
+        Thread.sleep(5);
+        ExceptionWrapper.handleCached(1, this::load, cache).thenRethrowFor(IllegalStateException::new);
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void handleCached_givenManyOneOffKeys_shouldKeepFrequentKeyWithinMaximumSize() {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder()
+                .maximumSize(4)
+                .build();
+
+        for (int i = 0; i < 5; i++) {
+            ExceptionWrapper.handleCached(0, this::load, cache).thenRethrowFor(IllegalStateException::new);
+        }
+        for (int key = 1; key < 100; key++) {
+            ExceptionWrapper.handleCached(key, this::load, cache).thenRethrowFor(IllegalStateException::new);
+        }
+        executions.set(0);
+        ExceptionWrapper.handleCached(0, this::load, cache).thenRethrowFor(IllegalStateException::new);
+
+        assertThat(cache.estimatedSize()).isLessThanOrEqualTo(4L);
+        assertThat(executions.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void invalidate_givenCachedKey_shouldExecuteSupplierAgain() {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder().build();
+
+        ExceptionWrapper.handleCached(1, this::load, cache).thenRethrowFor(IllegalStateException::new);
+        cache.invalidate(1);
+        ExceptionWrapper.handleCached(1, this::load, cache).thenRethrowFor(IllegalStateException::new);
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void handleCached_givenCachedFailure_shouldReplayItWithoutExecutingSupplier() {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder()
+                .cacheFailures(Duration.ofMinutes(1), IOException.class)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            ExceptionWrapper.handleCached(1, () -> {
+                executions.incrementAndGet();
+                throw new IOException();
+            }, cache).thenInvokeFor(dummyList::add, IOException.class);
+        }
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(dummyList).hasSize(3);
+        assertThat(dummyList.get(2)).isSameAs(dummyList.get(0));
+    }
+
+    @Test
+    public void handleCached_givenOnlyFailuresCached_shouldExecuteSupplierForEveryValue() {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder()
+                .expireAfterWrite(Duration.ZERO)
+                .cacheFailures(Duration.ofMinutes(1), IOException.class)
+                .build();
+
+        for (int i = 0; i < 2; i++) {
+            ExceptionWrapper.handleCached(1, this::load, cache).thenRethrowFor(IllegalStateException::new);
+            ExceptionWrapper.handleCached(2, () -> {
+                executions.incrementAndGet();
+                throw new IOException();
+            }, cache).thenInvokeFor(dummyList::add, IOException.class);
+        }
+
+        assertThat(executions.get()).isEqualTo(3);
+        assertThat(dummyList).hasSize(2);
+        assertThat(cache.estimatedSize()).isEqualTo(1L);
+    }
+
+    @Test
+    public void handleCached_givenExpiredFailure_shouldExecuteSupplierAgain() throws InterruptedException {
+        CachePolicy<Integer, String> cache = CachePolicy.<Integer, String>builder()
+                .cacheFailures(Duration.ofMillis(1), IOException.class)
+                .build();
+
+        ExceptionWrapper.handleCached(1, () -> {
+            executions.incrementAndGet();
+            throw new IOException();
+        }, cache).thenInvokeFor(dummyList::add, IOException.class);
+        Thread.sleep(5);
+        String result = ExceptionWrapper.handleCached(1, this::load, cache)
+                .thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    private String load() {
+        executions.incrementAndGet();
+        return GIVEN_STRING;
+    }
+}
@@ -0,0 +1,168 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.CallNotPermittedException;
+import pl.regonos.exception.wrapper.CircuitBreaker;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private static final String GIVEN_STRING = "string";
+    private static final int CONCURRENT_CALLS = 2_000;
+
+    private AtomicInteger executions;
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        executions = new AtomicInteger();
+        dummyList = Collections.synchronizedList(new ArrayList<>());
+    }
+
+    @Test
+    public void handleWithCircuitBreaker_givenCorrectValue_shouldReturnGivenValue() {
+        CircuitBreaker breaker = CircuitBreaker.builder().build();
+
+        String result = ExceptionWrapper.handleWithCircuitBreaker(() -> GIVEN_STRING, breaker)
+                .thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void handleWithCircuitBreaker_givenFailureRateOverThreshold_shouldRejectCalls() {
+        CircuitBreaker breaker = openingBreaker(Duration.ofHours(1));
+
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(executions.get()).isEqualTo(2);
+        assertThat(dummyList.get(2)).isInstanceOf(CallNotPermittedException.class);
+    }
+
+    @Test
+    public void handleWithCircuitBreaker_givenNotRecordedException_shouldKeepCircuitClosed() {
+        CircuitBreaker breaker = openingBreaker(Duration.ofHours(1));
+
+        for (int i = 0; i < 5; i++) {
+            ExceptionWrapper.handleWithCircuitBreaker(() -> {
+                throw new IllegalArgumentException();
+            }, breaker).thenInvokeFor(dummyList::add);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void handleWithCircuitBreaker_givenSuccessfulProbes_shouldCloseCircuit() {
+        CircuitBreaker breaker = openingBreaker(Duration.ZERO);
+
+        fail(breaker);
+        fail(breaker);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        ExceptionWrapper.handleWithCircuitBreaker(() -> GIVEN_STRING, breaker).thenInvokeFor(dummyList::add);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        ExceptionWrapper.handleWithCircuitBreaker(() -> GIVEN_STRING, breaker).thenInvokeFor(dummyList::add);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void handleWithCircuitBreaker_givenFailedProbe_shouldOpenCircuitAgain() {
+        CircuitBreaker breaker = openingBreaker(Duration.ZERO);
+
+        fail(breaker);
+        fail(breaker);
+        fail(breaker);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(executions.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void handleWithCircuitBreaker_givenConcurrentFailures_shouldOpenCircuit() throws InterruptedException {
+        CircuitBreaker breaker = concurrentBreaker();
+
+        runConcurrently(i -> fail(breaker));
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(executions.get()).isLessThan(CONCURRENT_CALLS);
+    }
+
+    @Test
+    public void handleWithCircuitBreaker_givenConcurrentCallsBelowThreshold_shouldKeepCircuitClosed() throws InterruptedException {
+        CircuitBreaker breaker = concurrentBreaker();
+
+        runConcurrently(i -> {
+            if (i % 4 == 0) {
+                fail(breaker);
+            } else {
+                ExceptionWrapper.handleWithCircuitBreaker(() -> GIVEN_STRING, breaker).thenInvokeFor(dummyList::add);
+            }
+        });
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(executions.get()).isEqualTo(CONCURRENT_CALLS / 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void failureRateThreshold_givenZero_shouldThrowIllegalArgumentException() {
+        CircuitBreaker.builder().failureRateThreshold(0.0);
+    }
+
+    private CircuitBreaker openingBreaker(Duration waitDuration) {
+        return CircuitBreaker.builder()
+                .failureRateThreshold(1.0)
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(2)
+                .waitDurationInOpenState(waitDuration)
+                .permittedCallsInHalfOpenState(2)
+                .recordExceptions(IOException.class)
+                .build();
+    }
+
+    private CircuitBreaker concurrentBreaker() {
+        return CircuitBreaker.builder()
+                .failureRateThreshold(0.5)
+                .slidingWindowSize(256)
+                .minimumNumberOfCalls(64)
+                .waitDurationInOpenState(Duration.ofHours(1))
+                .recordExceptions(IOException.class)
+                .build();
+    }
+
+    private void runConcurrently(IntConsumer call) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < CONCURRENT_CALLS; i++) {
+            int index = i;
+            executor.execute(() -> call.accept(index));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void fail(CircuitBreaker breaker) {
+        ExceptionWrapper.handleWithCircuitBreaker(() -> {
+            executions.incrementAndGet();
+            throw new IOException();
+        }, breaker).thenInvokeFor(dummyList::add);
+    }
+}
@@ -0,0 +1,150 @@
+package pl.assecods.socrates.commons.exception;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import pl.regonos.exception.wrapper.DuplicateHandlerReporter;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DuplicateHandlerReporterTest {
+
+    private static final String FIRST_OCCURRENCE = "more than once!";
+    private static final String SUMMARY = "times in last";
+
+    private Logger logger;
+    private ListAppender<ILoggingEvent> appender;
+
+    @Before
+    public void setup() {
+        DuplicateHandlerReporter.flush();
+        logger = (Logger) LoggerFactory.getLogger(ExceptionWrapper.class);
+        appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @After
+    public void tearDown() {
+        logger.detachAppender(appender);
+        DuplicateHandlerReporter.setSummaryInterval(Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void report_givenRepeatedCallSite_shouldLogFirstOccurrenceAndSummarizeOnlyLaterOnes() {
+        for (int i = 0; i < 3; i++) {
+            handleTwice(RepeatedException.class);
+        }
+        DuplicateHandlerReporter.flush();
+
+        assertThat(messages(FIRST_OCCURRENCE)).hasSize(1);
+        assertThat(messages(SUMMARY)).hasSize(1);
+        assertThat(messages(SUMMARY).get(0).getArgumentArray()[1]).isEqualTo(2L);
+    }
+
+    @Test
+    public void report_givenDifferentCallSites_shouldLogFirstCallSiteAndSummarizeLaterOnes() {
+        ExceptionWrapper.handle(() -> {
+            throw new IOException();
+        })
+                .andRethrowFor(IllegalStateException::new, CallSiteException.class)
+                .andRethrowFor(IllegalStateException::new, CallSiteException.class)
+                .thenInvokeFor(ex -> {
+                }, IOException.class);
+        ExceptionWrapper.handle(() -> {
+            throw new IOException();
+        })
+                .andRethrowFor(IllegalStateException::new, CallSiteException.class)
+                .andRethrowFor(IllegalStateException::new, CallSiteException.class)
+                .thenInvokeFor(ex -> {
+                }, IOException.class);
+        DuplicateHandlerReporter.flush();
+
+        assertThat(messages(FIRST_OCCURRENCE)).hasSize(1);
+        assertThat(String.valueOf(messages(FIRST_OCCURRENCE).get(0).getArgumentArray()[1]))
+                .contains(DuplicateHandlerReporterTest.class.getName());
+        assertThat(messages(SUMMARY)).hasSize(1);
+        assertThat(messages(SUMMARY).get(0).getArgumentArray()[1]).isEqualTo(1L);
+    }
+
+    @Test
+    public void report_givenSummaryInterval_shouldLogSummaryWithoutFurtherReports() throws InterruptedException {
+        DuplicateHandlerReporter.setSummaryInterval(Duration.ofMillis(50));
+
+        for (int i = 0; i < 2; i++) {
+            handleTwice(IntervalException.class);
+        }
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (messages(SUMMARY).isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(messages(SUMMARY)).hasSize(1);
+    }
+
+    @Test
+    public void report_givenHandlerRunByAsynchronousStage_shouldNotReportJdkFrameAsCallSite() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            ExceptionWrapper.<String>handleAsync(() -> {
+                Thread.sleep(50);
+                throw new IOException();
+            }, executor)
+                    .andRethrowFor(IllegalStateException::new, AsyncException.class)
+                    .andRethrowFor(IllegalStateException::new, AsyncException.class)
+                    .thenInvokeFor(ex -> {
+                    }, IOException.class)
+                    .join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<ILoggingEvent> reports = messages(FIRST_OCCURRENCE);
+        assertThat(reports).hasSize(1);
+        assertThat(String.valueOf(reports.get(0).getArgumentArray()[1]).startsWith("java.")).isFalse();
+    }
+
+    private void handleTwice(Class<? extends Throwable> duplicated) {
+        ExceptionWrapper.handle(() -> {
+            throw new IOException();
+        })
+                .andRethrowFor(IllegalStateException::new, duplicated)
+                .andRethrowFor(IllegalStateException::new, duplicated)
+                .thenInvokeFor(ex -> {
+                }, IOException.class);
+    }
+
+    private List<ILoggingEvent> messages(String fragment) {
+        synchronized (appender) {
+            return appender.list.stream()
+                    .filter(event -> event.getMessage().contains(fragment))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // Reports are kept per exception class for the whole JVM, so every test duplicates its own exception.
+    private static class RepeatedException extends RuntimeException {
+    }
+
+    private static class CallSiteException extends RuntimeException {
+    }
+
+    private static class IntervalException extends RuntimeException {
+    }
+
+    private static class AsyncException extends RuntimeException {
+    }
+}
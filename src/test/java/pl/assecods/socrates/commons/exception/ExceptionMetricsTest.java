@@ -0,0 +1,73 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionMetrics;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.HandlerType;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExceptionMetricsTest {
+
+    @Before
+    public void setup() {
+        ExceptionMetrics.reset();
+        ExceptionMetrics.enable();
+    }
+
+    @After
+    public void cleanup() {
+        ExceptionMetrics.disable();
+        ExceptionMetrics.reset();
+    }
+
+    @Test
+    public void snapshot_givenMatchedHandlers_shouldCountEveryHandlerType() {
+        for (int i = 0; i < 3; i++) {
+            ExceptionWrapper.handle(() -> {
+                throw new MetricsException();
+            }).andInvokeFor(ex -> {
+            }, MetricsException.class).thenInvokeForUnhandled(ex -> {
+            });
+        }
+
+        Map<HandlerType, Long> counts = ExceptionMetrics.snapshot().get(MetricsException.class);
+
+        assertThat(counts.get(HandlerType.AND_INVOKE_FOR)).isEqualTo(3L);
+        assertThat(counts.get(HandlerType.THEN_INVOKE_FOR_UNHANDLED)).isEqualTo(3L);
+        assertThat(counts.containsKey(HandlerType.THEN_INVOKE_FOR)).isFalse();
+    }
+
+    @Test
+    public void snapshot_givenPolicy_shouldCountMatchedHandlers() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .thenInvokeFor(ex -> {
+                }, MetricsException.class);
+
+        policy.execute(() -> {
+            throw new MetricsException();
+        });
+
+        assertThat(ExceptionMetrics.snapshot().get(MetricsException.class).get(HandlerType.THEN_INVOKE_FOR)).isEqualTo(1L);
+    }
+
+    @Test
+    public void snapshot_givenDisabledMetrics_shouldNotCountHandlers() {
+        ExceptionMetrics.disable();
+
+        ExceptionWrapper.handle(() -> {
+            throw new MetricsException();
+        }).thenInvokeFor(ex -> {
+        }, MetricsException.class);
+
+        assertThat(ExceptionMetrics.snapshot().containsKey(MetricsException.class)).isFalse();
+    }
+
+    private static class MetricsException extends Exception {
+    }
+}
@@ -0,0 +1,227 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExceptionPolicyTest {
+
+    private static final String GIVEN_STRING = "string";
+
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        dummyList = new ArrayList<>();
+    }
+
+    @Test
+    public void execute_givenCorrectValue_shouldReturnGivenValue() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenRethrowForUnhandled(RuntimeException::new);
+
+        assertThat(policy.execute(() -> GIVEN_STRING)).isEqualTo(GIVEN_STRING);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void andRethrowFor_givenCheckedException_shouldRethrowForGivenException() {
+        ExceptionPolicy.builder()
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeForUnhandled(dummyList::add)
+                .execute(() -> {
+                    throw new IOException();
+                });
+    }
+
+    @Test(expected = IOException.class)
+    public void andThrowFor_givenCheckedException_shouldRethrowTheSameException() throws IOException {
+        ExceptionPolicy.builder(IOException.class)
+                .andThrowFor(IOException.class)
+                .thenInvokeForUnhandled(dummyList::add)
+                .execute(() -> {
+                    throw new IOException();
+                });
+    }
+
+    @Test
+    public void andInvokeForParent_givenCheckedException_shouldExecuteCodeForAllChildExceptions() {
+        Object result = ExceptionPolicy.builder()
+                .andInvokeForParent(dummyList::add, Exception.class)
+                .thenInvokeFor(dummyList::add, UncheckedIOException.class)
+                .execute(() -> {
+                    throw new IOException();
+                });
+
+        assertThat(result).isNull();
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void thenInvokeFor_givenUnhandledUncheckedException_shouldEscapeException() {
+        ExceptionPolicy.builder()
+                .thenInvokeFor(dummyList::add, IOException.class)
+                .execute(() -> {
+                    throw new IllegalArgumentException();
+                });
+    }
+
+    @Test
+    public void thenInvokeForUnhandled_givenNotRethrownException_shouldInvokeCode() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andRethrowFor(IllegalStateException::new, IllegalArgumentException.class)
+                .andInvokeForParent(dummyList::add, RuntimeException.class)
+                .thenInvokeForUnhandled(dummyList::add);
+
+        policy.execute(() -> {
+            throw new UnsupportedOperationException();
+        });
+        policy.execute(() -> {
+            throw new IOException();
+        });
+
+        assertThat(dummyList).hasSize(3);
+    }
+
+    @Test
+    public void execute_givenSamePolicy_shouldHandleEveryExecutionIndependently() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .thenInvokeFor(dummyList::add);
+
+        for (int i = 0; i < 10; i++) {
+            policy.execute(() -> {
+                throw new IOException();
+            });
+        }
+
+        assertThat(dummyList).hasSize(10);
+    }
+
+    @Test
+    public void execute_givenRepeatedSubclassExceptions_shouldResolveParentAndExactHandlersEveryTime() {
+        List<String> calls = new ArrayList<>();
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andInvokeForParent(ex -> calls.add("parent"), IOException.class)
+                .thenInvokeFor(ex -> calls.add("exact"), IOException.class);
+
+        for (int i = 0; i < 3; i++) {
+            policy.execute(() -> {
+                throw new FileNotFoundException();
+            });
+            policy.execute(() -> {
+                throw new IOException();
+            });
+        }
+
+        assertThat(calls).containsExactly("parent", "exact", "parent", "exact", "parent", "exact");
+    }
+
+    @Test
+    public void execute_givenCachedResolution_shouldKeepDeclarationOrderUpToFirstThrowingHandler() {
+        List<String> calls = new ArrayList<>();
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andInvokeFor(ex -> calls.add("exact"), FileNotFoundException.class)
+                .andInvokeForParent(ex -> calls.add("parent"), IOException.class)
+                .andRethrowFor(IllegalStateException::new, FileNotFoundException.class)
+                .thenInvokeForUnhandled(ex -> calls.add("unhandled"));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                policy.execute(() -> {
+                    throw new FileNotFoundException();
+                });
+            } catch (IllegalStateException ex) {
+                calls.add("rethrown");
+            }
+        }
+        policy.execute(() -> {
+            throw new EOFException();
+        });
+
+        assertThat(calls).containsExactly("exact", "parent", "rethrown", "exact", "parent", "rethrown", "parent", "unhandled");
+    }
+
+    @Test
+    public void execute_givenSameClassWithDifferentCauses_shouldResolveByThrownClassOnly() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeForUnhandled(dummyList::add);
+
+        policy.execute(() -> {
+            throw new UncheckedIOException(new IOException());
+        });
+        policy.execute(() -> {
+            throw new UncheckedIOException(new FileNotFoundException());
+        });
+
+        assertThat(dummyList).hasSize(2);
+    }
+
+    @Test
+    public void execute_givenPolicySharedAcrossThreads_shouldResolveEveryExceptionClassCorrectly() throws Exception {
+        LongAdder parent = new LongAdder();
+        LongAdder exact = new LongAdder();
+        LongAdder unhandled = new LongAdder();
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andInvokeForParent(ex -> parent.increment(), IOException.class)
+                .andRethrowFor(IllegalStateException::new, IllegalArgumentException.class)
+                .andInvokeFor(ex -> exact.increment(), EOFException.class)
+                .thenInvokeForUnhandled(ex -> unhandled.increment());
+        List<Supplier<Throwable>> errors = Arrays.asList(FileNotFoundException::new, EOFException::new,
+                IllegalArgumentException::new, UnsupportedOperationException::new);
+
+        int threads = 8;
+        int executions = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        LongAdder rethrown = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < executions; i++) {
+                        Throwable error = errors.get(i % errors.size()).get();
+                        try {
+                            policy.execute(() -> {
+                                throw error;
+                            });
+                        } catch (IllegalStateException ex) {
+                            rethrown.increment();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long perClass = (long) threads * executions / errors.size();
+        assertThat(parent.sum()).isEqualTo(2 * perClass);
+        assertThat(exact.sum()).isEqualTo(perClass);
+        assertThat(rethrown.sum()).isEqualTo(perClass);
+        assertThat(unhandled.sum()).isEqualTo(3 * perClass);
+    }
+}
@@ -0,0 +1,72 @@
+package pl.assecods.socrates.commons.exception;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.Assume;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.ThrowingSupplier;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExceptionWrapperAllocationTest {
+
+    private static final String GIVEN_STRING = "string";
+    private static final int WARM_UP_CALLS = 500_000;
+    private static final int MEASURED_CALLS = 100_000;
+    private static final int ATTEMPTS = 5;
+    /**
+     * Less than a single wrapper object, so any allocation of the chain fails the test, while stray allocations of
+     * the measurement itself do not.
+     */
+    private static final long MAX_BYTES_PER_CALL = 8;
+
+    // Handlers and class arrays are constants, so the measured loop allocates only what the library allocates.
+    private static final ThrowingSupplier<String> SUPPLIER = () -> GIVEN_STRING;
+    private static final Consumer<Throwable> IGNORE = ex -> {
+    };
+    private static final Function<Throwable, IllegalArgumentException> RETHROW = IllegalArgumentException::new;
+    private static final Class[] STATE_EXCEPTIONS = {IllegalStateException.class};
+    private static final Class[] IO_EXCEPTIONS = {IOException.class};
+
+    private final ThreadMXBean threadBean = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private long sink;
+
+    @Test
+    public void handle_givenCorrectValue_shouldNotAllocateOnSuccessPath() {
+        // Coverage agent (jacoco) instruments the chain beyond inlining limits, so the wrapper is never scalar replaced.
+        Assume.assumeFalse(ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(argument -> argument.startsWith("-javaagent")));
+
+        // The wrapper is scalar replaced only once the chain is JIT compiled.
+        runChain(WARM_UP_CALLS);
+
+        long bytesPerCall = Long.MAX_VALUE;
+        for (int attempt = 0; attempt < ATTEMPTS && bytesPerCall > MAX_BYTES_PER_CALL; attempt++) {
+            long before = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            runChain(MEASURED_CALLS);
+            long after = threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+
+            bytesPerCall = Math.min(bytesPerCall, (after - before) / MEASURED_CALLS);
+        }
+
+        assertThat(sink).isGreaterThan(0);
+        assertThat(bytesPerCall).isLessThanOrEqualTo(MAX_BYTES_PER_CALL);
+    }
+
+    private void runChain(int calls) {
+        for (int i = 0; i < calls; i++) {
+            String result = ExceptionWrapper.handle(SUPPLIER)
+                    .andInvokeFor(IGNORE, STATE_EXCEPTIONS)
+                    .andInvokeForParent(IGNORE, RuntimeException.class)
+                    .andRethrowFor(RETHROW, IO_EXCEPTIONS)
+                    .thenInvokeForUnhandled(IGNORE);
+            sink += result.length();
+        }
+    }
+}
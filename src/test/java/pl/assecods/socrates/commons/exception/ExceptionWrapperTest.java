@@ -4,10 +4,13 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.LightweightException;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -274,6 +277,99 @@ public class ExceptionWrapperTest {
         }).andThrowFor(Exception.class);
     }
 
+    @Test
+    public void thenRethrowFor_givenStacklessRethrowMethod_shouldKeepOnlyCauseStackTrace() {
+        IOException cause = new IOException();
+        try {
+            ExceptionWrapper.handle(() -> {
+                throw cause;
+            }).thenRethrowFor(ExceptionWrapper.stackless(), IOException.class);
+            Assert.fail();
+        } catch (LightweightException ex) {
+            assertThat(ex.getStackTrace()).hasSize(0);
+            assertThat(ex.getCause()).isSameAs(cause);
+        }
+    }
+
+    @Test
+    public void andInvokeForCause_givenWrappedCheckedException_shouldExecuteCodeForCause() {
+        IOException cause = new IOException();
+        ExceptionWrapper.handle(() -> {
+            throw new RuntimeException(new UncheckedIOException(cause));
+        }).andInvokeForCause(dummyList::add, IOException.class);
+
+        assertThat(dummyList).containsExactly(cause);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void thenRethrowForCause_givenWrappedCheckedException_shouldRethrowForGivenException() {
+        ExceptionWrapper.handle(() -> {
+            throw new UncheckedIOException(new IOException());
+        }).thenRethrowForCause(IllegalStateException::new, IOException.class);
+    }
+
+    @Test
+    public void thenInvokeForCause_givenCyclicCauseChain_shouldNotMatchAnyCause() {
+        Exception first = new Exception();
+        Exception second = new Exception(first);
+        first.initCause(second);
+
+        String result = ExceptionWrapper.<String>handle(() -> {
+            throw first;
+        }).thenInvokeForCause(dummyList::add, IOException.class);
+
+        assertThat(result).isNull();
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void andRecoverFor_givenCheckedException_shouldContinueChainWithRecoveredValue() {
+        String result = ExceptionWrapper.<String>handle(() -> {
+            throw new IOException();
+        }).andRecoverFor(ex -> GIVEN_STRING, IOException.class)
+                .andInvokeForParent(dummyList::add, Exception.class)
+                .thenRethrowForUnhandled(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void andRecoverFor_givenNotExpectedException_shouldPassExceptionFurther() {
+        ExceptionWrapper.<String>handle(() -> {
+            throw new IOException();
+        }).andRecoverFor(ex -> GIVEN_STRING, TimeoutException.class)
+                .thenRethrowFor(IllegalStateException::new, IOException.class);
+    }
+
+    @Test
+    public void thenRecoverForParent_givenChildException_shouldReturnRecoveredValue() {
+        String result = ExceptionWrapper.<String>handle(() -> {
+            throw new IOException();
+        }).thenRecoverForParent(ex -> ex.getClass().getSimpleName(), Exception.class);
+
+        assertThat(result).isEqualTo("IOException");
+    }
+
+    @Test
+    public void thenRecoverForUnhandled_givenInvokedException_shouldReturnRecoveredValue() {
+        String result = ExceptionWrapper.<String>handle(() -> {
+            throw new IOException();
+        }).andInvokeFor(dummyList::add, IOException.class)
+                .thenRecoverForUnhandled(ex -> GIVEN_STRING);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void thenRecoverFor_givenCorrectValue_shouldReturnGivenValue() {
+        String result = ExceptionWrapper.handle(() -> GIVEN_STRING)
+                .thenRecoverFor(ex -> "fallback");
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+    }
+
     private void checkExceptionWrapperResult() {
         if (dummyList.isEmpty()) {
             Assert.fail();
@@ -0,0 +1,72 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FunctionAdapterTest {
+
+    private List<Throwable> dummyList;
+    private ExceptionPolicy<RuntimeException> policy;
+
+    @Before
+    public void setup() {
+        dummyList = Collections.synchronizedList(new ArrayList<>());
+        policy = ExceptionPolicy.builder()
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeFor(dummyList::add, NumberFormatException.class);
+    }
+
+    @Test
+    public void function_givenHandledException_shouldReturnNullForFailedElements() {
+        List<Integer> result = Stream.of("1", "two", "3")
+                .map(ExceptionWrapper.function(Integer::parseInt, policy))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        assertThat(result).containsExactly(1, 3);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void function_givenRethrownException_shouldRethrowForGivenException() {
+        Stream.of("file")
+                .map(ExceptionWrapper.function(this::read, policy))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void predicate_givenHandledException_shouldReturnFalse() {
+        long result = Stream.of("1", "two", "3").parallel()
+                .filter(ExceptionWrapper.predicate(value -> Integer.parseInt(value) > 0, policy))
+                .count();
+
+        assertThat(result).isEqualTo(2L);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void consumer_givenHandledException_shouldContinueWithNextElements() {
+        List<Integer> result = new ArrayList<>();
+        Stream.of("1", "two", "3")
+                .forEach(ExceptionWrapper.consumer(value -> result.add(Integer.parseInt(value)), policy));
+
+        assertThat(result).containsExactly(1, 3);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    private String read(String file) throws IOException {
+        throw new IOException(file);
+    }
+}
@@ -0,0 +1,171 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HedgeTest {
+
+    private static final String GIVEN_STRING = "string";
+    private static final Duration HEDGE_AFTER = Duration.ofMillis(20);
+
+    private ExecutorService executor;
+    private AtomicInteger attempts;
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        executor = Executors.newCachedThreadPool();
+        attempts = new AtomicInteger();
+        dummyList = new ArrayList<>();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void handleHedged_givenFastSupplier_shouldExecuteOneAttempt() throws InterruptedException {
+        String result = ExceptionWrapper.handleHedged(() -> {
+            attempts.incrementAndGet();
+            return GIVEN_STRING;
+        }, HEDGE_AFTER, executor).thenRethrowFor(IllegalStateException::new);
+
+        Thread.sleep(50);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(attempts.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void handleHedged_givenCompletedCall_shouldNotRetainResultUntilHedgeDelay() throws InterruptedException {
+        // Supplier outlasts a tick of the timer, so the hedge timeout is already in the wheel when the call returns
+        WeakReference<Object> result = new WeakReference<>(ExceptionWrapper.handleHedged(() -> {
+            Thread.sleep(50);
+            return new Object();
+        }, Duration.ofMinutes(1), executor).thenRethrowFor(IllegalStateException::new));
+
+        for (int i = 0; i < 50 && result.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(result.get()).isNull();
+    }
+
+    @Test
+    public void handleHedged_givenInterruptedCaller_shouldCancelAttemptsAndClearInterruptFlag() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        List<Throwable> handled = new ArrayList<>();
+        AtomicBoolean interrupted = new AtomicBoolean(true);
+
+        Thread caller = new Thread(() -> {
+            ExceptionWrapper.handleHedged(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    cancelled.countDown();
+                    throw ex;
+                }
+                return GIVEN_STRING;
+            }, Duration.ofMinutes(1), executor).thenInvokeFor(handled::add, InterruptedException.class);
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        caller.start();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        caller.interrupt();
+        caller.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(handled).hasSize(1);
+        assertThat(interrupted.get()).isFalse();
+    }
+
+    @Test
+    public void handleHedged_givenSlowFirstAttempt_shouldReturnSecondAttemptAndCancelFirst() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+
+        String result = ExceptionWrapper.handleHedged(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException ex) {
+                    cancelled.countDown();
+                    throw ex;
+                }
+                return "slow";
+            }
+            return GIVEN_STRING;
+        }, HEDGE_AFTER, executor).thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void handleHedged_givenFailingFirstAttempt_shouldReturnSecondAttempt() {
+        String result = ExceptionWrapper.handleHedged(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IOException();
+            }
+            return GIVEN_STRING;
+        }, Duration.ofSeconds(10), executor).thenInvokeFor(dummyList::add);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void handleHedged_givenAllAttemptsFailing_shouldHandleFirstErrorWithoutModifyingIt() {
+        IOException first = new IOException();
+
+        ExceptionWrapper.<String>handleHedged(() -> {
+            throw attempts.incrementAndGet() == 1 ? first : new IllegalStateException();
+        }, HEDGE_AFTER, executor).thenInvokeFor(dummyList::add, IOException.class);
+
+        assertThat(dummyList).containsExactly(first);
+        assertThat(first.getSuppressed()).isEmpty();
+    }
+
+    @Test
+    public void handleHedged_givenExecutorRunningInSubmittingThread_shouldNotRunAttemptOnTimerThread() {
+        Thread caller = Thread.currentThread();
+        List<Thread> threads = new ArrayList<>();
+
+        String result = ExceptionWrapper.handleHedged(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(10_000);
+                return "slow";
+            }
+            threads.add(Thread.currentThread());
+            return GIVEN_STRING;
+        }, HEDGE_AFTER, task -> {
+            if (attempts.get() == 0) {
+                executor.execute(task);
+            } else {
+                task.run();
+            }
+        }).thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(threads).containsExactly(caller);
+    }
+}
@@ -0,0 +1,96 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.BooleanExceptionWrapper;
+import pl.regonos.exception.wrapper.DoubleExceptionWrapper;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.IntExceptionWrapper;
+import pl.regonos.exception.wrapper.LongExceptionWrapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrimitiveExceptionWrapperTest {
+
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        dummyList = new ArrayList<>();
+    }
+
+    @Test
+    public void intWrapper_givenCorrectValue_shouldReturnGivenValue() {
+        int result = IntExceptionWrapper.handle(() -> Integer.parseInt("42"))
+                .andInvokeFor(dummyList::add, NumberFormatException.class)
+                .thenRethrowForUnhandled(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(42);
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void intWrapper_givenHandledException_shouldReturnZero() {
+        int result = IntExceptionWrapper.handle(() -> Integer.parseInt("not a number"))
+                .thenInvokeFor(dummyList::add, NumberFormatException.class);
+
+        assertThat(result).isEqualTo(0);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void longWrapper_givenCheckedException_shouldRethrowForGivenException() {
+        LongExceptionWrapper.handle(() -> {
+            throw new IOException();
+        }).thenRethrowFor(IllegalStateException::new, IOException.class);
+    }
+
+    @Test
+    public void doubleWrapper_givenChildException_shouldExecuteCodeForParent() {
+        double result = DoubleExceptionWrapper.handle(() -> Double.parseDouble("NaN?"))
+                .thenInvokeForParent(dummyList::add, IllegalArgumentException.class);
+
+        assertThat(result).isEqualTo(0.0);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void booleanWrapper_givenUnhandledUncheckedException_shouldEscapeException() {
+        BooleanExceptionWrapper.handle(() -> {
+            throw new IllegalArgumentException();
+        }).thenInvokeFor(dummyList::add, IOException.class);
+    }
+
+    @Test
+    public void executeAsInt_givenHandledException_shouldReturnZero() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .thenInvokeFor(dummyList::add, NumberFormatException.class);
+
+        assertThat(policy.executeAsInt(() -> Integer.parseInt("7"))).isEqualTo(7);
+        assertThat(policy.executeAsInt(() -> Integer.parseInt("seven"))).isEqualTo(0);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void thenRecoverFor_givenNumberFormatException_shouldReturnRecoveredValue() {
+        int intResult = IntExceptionWrapper.handle(() -> Integer.parseInt("seven"))
+                .thenRecoverFor(ex -> -1, NumberFormatException.class);
+        long longResult = LongExceptionWrapper.handle(() -> Long.parseLong("seven"))
+                .andRecoverFor(ex -> -1L, NumberFormatException.class)
+                .thenRethrowForUnhandled(IllegalStateException::new);
+        double doubleResult = DoubleExceptionWrapper.handle(() -> Double.parseDouble("seven"))
+                .thenRecoverForUnhandled(ex -> Double.NaN);
+        boolean booleanResult = BooleanExceptionWrapper.handle(() -> {
+            throw new IOException();
+        }).thenRecoverForParent(ex -> true, Exception.class);
+
+        assertThat(intResult).isEqualTo(-1);
+        assertThat(longResult).isEqualTo(-1L);
+        assertThat(Double.isNaN(doubleResult)).isTrue();
+        assertThat(booleanResult).isTrue();
+    }
+}
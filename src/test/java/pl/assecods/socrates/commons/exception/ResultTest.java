@@ -0,0 +1,92 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.Result;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResultTest {
+
+    private static final String GIVEN_STRING = "string";
+
+    @Test
+    public void toResult_givenCorrectValue_shouldReturnSuccess() {
+        Result<String> result = ExceptionWrapper.handle(() -> GIVEN_STRING)
+                .toResult();
+
+        assertThat(result.isSuccess()).isTrue();
+        assertThat(result.getValue()).isEqualTo(GIVEN_STRING);
+        assertThat(result.getError()).isNull();
+    }
+
+    @Test
+    public void toResult_givenExpectedException_shouldReturnFailure() {
+        IOException exception = new IOException();
+
+        Result<String> result = ExceptionWrapper.<String>handle(() -> {
+            throw exception;
+        }).toResult(IOException.class);
+
+        assertThat(result.isFailure()).isTrue();
+        assertThat(result.getError()).isSameAs(exception);
+        assertThat(result.getOrElse(GIVEN_STRING)).isEqualTo(GIVEN_STRING);
+    }
+
+    @Test
+    public void toResult_givenNotExpectedCheckedException_shouldReturnFailure() {
+        SQLException exception = new SQLException();
+
+        Result<String> result = ExceptionWrapper.<String>handle(() -> {
+            throw exception;
+        }).toResult(IOException.class);
+
+        assertThat(result.isFailure()).isTrue();
+        assertThat(result.getError()).isSameAs(exception);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void toResult_givenNotExpectedRuntimeException_shouldEscapeException() {
+        ExceptionWrapper.handle(() -> {
+            throw new IllegalArgumentException();
+        }).toResult(IOException.class);
+    }
+
+    @Test
+    public void toResult_givenRecoveredException_shouldReturnSuccessOfRecoveredValue() {
+        Result<String> result = ExceptionWrapper.<String>handle(() -> {
+            throw new IOException();
+        }).andRecoverFor(ex -> GIVEN_STRING, IOException.class)
+                .toResult();
+
+        assertThat(result).isEqualTo(Result.success(GIVEN_STRING));
+    }
+
+    @Test
+    public void success_givenNullAndBooleanValues_shouldReturnSharedInstances() {
+        assertThat(Result.success(null)).isSameAs(Result.success(null));
+        assertThat(Result.success(true)).isSameAs(ExceptionWrapper.handle(() -> Boolean.TRUE).toResult());
+        assertThat(Result.success(false)).isSameAs(Result.success(Boolean.FALSE));
+    }
+
+    @Test
+    public void map_givenThrowingMapper_shouldReturnFailure() {
+        Result<Integer> result = Result.success(GIVEN_STRING)
+                .map(Integer::parseInt);
+
+        assertThat(result.getError()).isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void toWrapper_givenFailure_shouldHandleExceptionWithChain() {
+        Result.of(() -> {
+            throw new IOException();
+        }).toWrapper()
+                .andRethrowFor(IllegalStateException::new, IOException.class)
+                .thenInvokeForUnhandled(ex -> {
+                });
+    }
+}
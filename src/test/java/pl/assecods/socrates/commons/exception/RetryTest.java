@@ -0,0 +1,168 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.Backoff;
+import pl.regonos.exception.wrapper.BatchResult;
+import pl.regonos.exception.wrapper.ExceptionPolicy;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+import pl.regonos.exception.wrapper.IntExceptionWrapper;
+import pl.regonos.exception.wrapper.RetryBudget;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RetryTest {
+
+    private static final String GIVEN_STRING = "string";
+
+    private AtomicInteger attempts;
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        attempts = new AtomicInteger();
+        dummyList = new ArrayList<>();
+    }
+
+    @Test
+    public void andRetryFor_givenTransientException_shouldReturnValueOfLaterAttempt() {
+        String result = ExceptionWrapper.handle(() -> failTimes(2))
+                .andRetryFor(3, Backoff.none(), IOException.class)
+                .thenInvokeFor(dummyList::add);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void andRetryFor_givenPersistentException_shouldHandleLastException() {
+        String result = ExceptionWrapper.handle(() -> failTimes(5))
+                .andRetryFor(3, Backoff.fixed(Duration.ofMillis(1)), IOException.class)
+                .thenInvokeFor(dummyList::add);
+
+        assertThat(result).isNull();
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void andRetryFor_givenNotExpectedException_shouldNotRetry() {
+        ExceptionWrapper.handle(() -> failTimes(1))
+                .andRetryFor(3, Backoff.none(), IllegalStateException.class)
+                .thenInvokeFor(dummyList::add);
+
+        assertThat(attempts.get()).isEqualTo(1);
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void andRetryFor_givenExhaustedBudget_shouldNotRetry() {
+        RetryBudget budget = RetryBudget.of(1, Duration.ofHours(1));
+
+        ExceptionWrapper.handle(() -> failTimes(5))
+                .andRetryFor(5, Backoff.none(), budget, IOException.class)
+                .thenInvokeFor(dummyList::add);
+
+        assertThat(attempts.get()).isEqualTo(2);
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void andRetryFor_givenIntSupplier_shouldReturnValueOfLaterAttempt() {
+        int result = IntExceptionWrapper.handle(() -> failTimes(1).length())
+                .andRetryFor(2, Backoff.none())
+                .thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING.length());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void andRetryFor_givenZeroAttempts_shouldThrowIllegalArgumentException() {
+        ExceptionWrapper.handle(() -> GIVEN_STRING)
+                .andRetryFor(0, Backoff.none());
+    }
+
+    @Test
+    public void execute_givenRetryingPolicy_shouldRetryBeforeChain() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andInvokeFor(dummyList::add, IOException.class)
+                .andRetryFor(3, Backoff.none(), IOException.class)
+                .thenRethrowForUnhandled(IllegalStateException::new);
+
+        assertThat(policy.execute(() -> failTimes(2))).isEqualTo(GIVEN_STRING);
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void handleAll_givenRetryingPolicy_shouldRetryFailedSupplier() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andRetryFor(3, Backoff.none(), IOException.class)
+                .thenInvokeFor(dummyList::add, IOException.class);
+
+        BatchResult<String> result = ExceptionWrapper.handleAll(Collections.singletonList(() -> failTimes(2)), policy);
+
+        assertThat(result.getResult(0)).isEqualTo(GIVEN_STRING);
+        assertThat(attempts.get()).isEqualTo(3);
+        assertThat(dummyList).isEmpty();
+    }
+
+    @Test
+    public void function_givenRetryingPolicy_shouldRetryWithSameArgument() {
+        ExceptionPolicy<RuntimeException> policy = ExceptionPolicy.builder()
+                .andRetryFor(2, Backoff.none(), IOException.class)
+                .thenInvokeFor(dummyList::add, IOException.class);
+
+        Function<Integer, String> function = ExceptionWrapper.function(this::failTimes, policy);
+
+        assertThat(function.apply(1)).isEqualTo(GIVEN_STRING);
+        assertThat(function.apply(5)).isNull();
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test
+    public void exponential_givenRetries_shouldDoubleDelayUpToMaximum() {
+        Backoff backoff = Backoff.exponential(Duration.ofNanos(10), Duration.ofNanos(50));
+
+        assertThat(backoff.nextDelayNanos(1, 0L)).isEqualTo(10L);
+        assertThat(backoff.nextDelayNanos(3, 20L)).isEqualTo(40L);
+        assertThat(backoff.nextDelayNanos(4, 40L)).isEqualTo(50L);
+        assertThat(backoff.nextDelayNanos(100, 50L)).isEqualTo(50L);
+    }
+
+    @Test
+    public void decorrelatedJitter_givenPreviousDelay_shouldStayInBounds() {
+        Backoff backoff = Backoff.decorrelatedJitter(Duration.ofNanos(10), Duration.ofNanos(100));
+
+        for (int i = 0; i < 100; i++) {
+            long delay = backoff.nextDelayNanos(2, 20L);
+            assertThat(delay).isGreaterThanOrEqualTo(10L);
+            assertThat(delay).isLessThanOrEqualTo(60L);
+        }
+        assertThat(backoff.nextDelayNanos(5, 90L)).isLessThanOrEqualTo(100L);
+    }
+
+    @Test
+    public void decorrelatedJitter_givenMaximalDelayCloseToLongMax_shouldNotOverflow() {
+        Backoff backoff = Backoff.decorrelatedJitter(Duration.ofNanos(10), Duration.ofNanos(Long.MAX_VALUE));
+
+        long delay = backoff.nextDelayNanos(10, Long.MAX_VALUE / 2);
+
+        assertThat(delay).isGreaterThanOrEqualTo(10L);
+    }
+
+    private String failTimes(int failures) throws IOException {
+        if (attempts.incrementAndGet() <= failures) {
+            throw new IOException();
+        }
+        return GIVEN_STRING;
+    }
+}
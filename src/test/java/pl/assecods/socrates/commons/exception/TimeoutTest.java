@@ -0,0 +1,90 @@
+package pl.assecods.socrates.commons.exception;
+
+import org.junit.Before;
+import org.junit.Test;
+import pl.regonos.exception.wrapper.ExceptionWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TimeoutTest {
+
+    private static final String GIVEN_STRING = "string";
+    private static final Duration TIMEOUT = Duration.ofMillis(50);
+
+    private List<Throwable> dummyList;
+
+    @Before
+    public void setup() {
+        dummyList = new ArrayList<>();
+    }
+
+    @Test
+    public void handleWithTimeout_givenFastSupplier_shouldReturnGivenValue() {
+        String result = ExceptionWrapper.handleWithTimeout(() -> GIVEN_STRING, TIMEOUT)
+                .thenRethrowFor(IllegalStateException::new);
+
+        assertThat(result).isEqualTo(GIVEN_STRING);
+    }
+
+    @Test
+    public void handleWithTimeout_givenSlowSupplier_shouldHandleTimeoutException() {
+        long start = System.nanoTime();
+
+        String result = ExceptionWrapper.handleWithTimeout(() -> {
+            Thread.sleep(10_000);
+            return GIVEN_STRING;
+        }, TIMEOUT).thenInvokeFor(dummyList::add, TimeoutException.class);
+
+        assertThat(result).isNull();
+        assertThat(dummyList).hasSize(1);
+        assertThat(dummyList.get(0).getCause()).isInstanceOf(InterruptedException.class);
+        assertThat(System.nanoTime() - start).isLessThan(Duration.ofSeconds(5).toNanos());
+        assertThat(Thread.currentThread().isInterrupted()).isFalse();
+    }
+
+    @Test
+    public void handleWithTimeout_givenInterruptedCaller_shouldPreserveInterruptStatus() {
+        Thread.currentThread().interrupt();
+
+        String result = ExceptionWrapper.handleWithTimeout(() -> {
+            long end = System.nanoTime() + TIMEOUT.multipliedBy(4).toNanos();
+            while (System.nanoTime() < end) {
+                Thread.yield();
+            }
+            return GIVEN_STRING;
+        }, TIMEOUT).thenInvokeFor(dummyList::add, TimeoutException.class);
+
+        assertThat(result).isNull();
+        assertThat(dummyList).hasSize(1);
+        assertThat(Thread.interrupted()).isTrue();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void handleWithTimeout_givenSlowSupplier_shouldRethrowForTimeoutException() {
+        ExceptionWrapper.handleWithTimeout(() -> {
+            Thread.sleep(10_000);
+            return GIVEN_STRING;
+        }, TIMEOUT).andRethrowFor(IllegalStateException::new, TimeoutException.class)
+                .thenInvokeForUnhandled(dummyList::add);
+    }
+
+    @Test
+    public void handleWithTimeout_givenFailingSupplier_shouldHandleOriginalException() {
+        ExceptionWrapper.handleWithTimeout(() -> {
+            throw new IOException();
+        }, TIMEOUT).thenInvokeFor(dummyList::add, IOException.class);
+
+        assertThat(dummyList).hasSize(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void handleWithTimeout_givenZeroTimeout_shouldThrowIllegalArgumentException() {
+        ExceptionWrapper.handleWithTimeout(() -> GIVEN_STRING, Duration.ZERO);
+    }
+}